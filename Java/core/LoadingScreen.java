@@ -0,0 +1,71 @@
+package core;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.utils.Disposable;
+
+/**
+ * LoadingScreen draws a simple progress bar while Assets finishes loading.
+ *
+ * It only needs a 1x1 white texture (made in memory, no file to load),
+ * stretched and tinted into the bar's outline, background and fill.
+ * All sizes are in world units of the virtual resolution.
+ */
+public class LoadingScreen implements Disposable {
+
+    // ------------------ LAYOUT ------------------
+
+    /** Size of the bar in world units. */
+    private static final float BAR_WIDTH = 160f, BAR_HEIGHT = 8f;
+
+    /** Colors for the outline, empty background and filled part of the bar. */
+    private static final Color OUTLINE = new Color(0.85f, 0.85f, 0.85f, 1f);
+    private static final Color EMPTY   = new Color(0.05f, 0.06f, 0.08f, 1f);
+    private static final Color FILL    = new Color(0.35f, 0.75f, 0.45f, 1f);
+
+    // ------------------ GRAPHICS ------------------
+
+    /** Single white pixel; tinting it with batch.setColor gives any solid color. */
+    private final Texture pixel;
+
+    public LoadingScreen() {
+        Pixmap pm = new Pixmap(1, 1, Pixmap.Format.RGBA8888);
+        pm.setColor(Color.WHITE);
+        pm.fill();
+        pixel = new Texture(pm);
+        pm.dispose(); // Pixels are on the GPU now; the CPU copy is no longer needed.
+    }
+
+    // ------------------ RENDER ------------------
+
+    /**
+     * Draws the bar centered in a worldW x worldH view.
+     * The batch must already be between begin() and end().
+     *
+     * @param progress loading progress from 0 to 1
+     */
+    public void render(SpriteBatch batch, float worldW, float worldH, float progress) {
+        float x = Math.round((worldW - BAR_WIDTH) / 2f);
+        float y = Math.round((worldH - BAR_HEIGHT) / 2f);
+
+        // Outline (1 unit larger on every side), then background, then the filled part.
+        batch.setColor(OUTLINE);
+        batch.draw(pixel, x - 1, y - 1, BAR_WIDTH + 2, BAR_HEIGHT + 2);
+        batch.setColor(EMPTY);
+        batch.draw(pixel, x, y, BAR_WIDTH, BAR_HEIGHT);
+        batch.setColor(FILL);
+        batch.draw(pixel, x, y, Math.round(BAR_WIDTH * progress), BAR_HEIGHT);
+
+        // Restore the default tint so later draws are not colored.
+        batch.setColor(Color.WHITE);
+    }
+
+    // ------------------ CLEANUP ------------------
+
+    @Override
+    public void dispose() {
+        pixel.dispose();
+    }
+}
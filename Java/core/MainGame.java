@@ -2,18 +2,57 @@ package core;
 
 import com.badlogic.gdx.ApplicationAdapter;
 import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Input;
 import com.badlogic.gdx.graphics.GL20;
 import com.badlogic.gdx.graphics.OrthographicCamera;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.glutils.HdpiUtils;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.utils.TimeUtils;
 import com.badlogic.gdx.utils.viewport.FitViewport;
+import core.assets.Assets;
+import core.assets.SpriteSetCache;
+import core.ecs.EntityWorld;
+import core.ecs.RenderSystem;
 import core.entities.Player;
+import core.input.InputRecorder;
+import core.input.InputReplay;
+import core.input.InputState;
+import core.input.KeyEventQueue;
+import core.loop.FixedStepLoop;
+import core.loop.SimulationThread;
+import core.loop.TripleBuffer;
+import core.perf.FrameStats;
+import core.perf.FrameTimeReport;
+import core.perf.PerfHud;
+import core.render.InstancedSpriteRenderer;
+import core.render.RenderQueue;
+import core.render.StaticLayer;
+import core.render.VirtualScreen;
+import core.map.TileMapRenderer;
+import core.map.Tileset;
+
+import java.io.File;
+import java.io.IOException;
 
 /**
  * MainGame is the core LibGDX ApplicationAdapter.
  *
+ * The game logic itself lives in Simulation (no graphics); MainGame feeds it
+ * input, runs its ticks at a fixed rate, and draws the result.
+ *
+ * Threads (see useSimulationThread()):
+ *  - by default ticks run inside render(), on the render thread, which keeps
+ *    headless tools and benchmarks fully deterministic frame by frame
+ *  - with a SimulationThread, ticks run on their own thread and the render
+ *    thread only draws, so logic and drawing overlap on separate cores
+ * Either way the simulation publishes a RenderSnapshot after its ticks and
+ * render() draws only from the latest snapshot, never from the live world.
+ *
  * Lifecycle:
- *  - create(): allocate long-lived resources (camera, viewport, batch, game objects)
- *  - render(): runs every frame; update game logic, then draw
+ *  - create(): allocate long-lived resources (camera, viewport, batch) and queue assets
+ *  - render(): runs every frame; while assets load, show a progress bar;
+ *              afterwards update game logic, then draw
  *  - resize(): handle window size changes; recompute viewport
  *  - dispose(): free resources
  *
@@ -22,6 +61,8 @@ import core.entities.Player;
  *    where 1 world unit == 1 pixel for crisp pixel art.
  *  - FitViewport scales the game to fit the window while preserving aspect ratio,
  *    adding black bars (letterboxing) as needed.
+ *  - The world is drawn into a VIRTUAL_WIDTH x VIRTUAL_HEIGHT VirtualScreen, which is
+ *    then scaled up to the window in one quad, so drawing costs the same at any window size.
  */
 public class MainGame extends ApplicationAdapter {
 
@@ -33,6 +74,39 @@ public class MainGame extends ApplicationAdapter {
     /** Logical height of the world, in world units. */
     public static final int VIRTUAL_HEIGHT = 180;
 
+    /** Background color (RGB) behind the map and in the letterbox bars. */
+    private static final float BACKGROUND_R = 0.11f, BACKGROUND_G = 0.13f, BACKGROUND_B = 0.17f;
+
+    // ------------------ ASSET LOADING ------------------
+
+    /**
+     * Milliseconds per frame that asset loading may spend on the render thread
+     * (GPU uploads). Decoding runs on a background thread and doesn't count against this.
+     */
+    private static final int LOAD_BUDGET_MS = 8;
+
+    // ------------------ SIMULATION RATE ------------------
+
+    /** Most logic updates to run in one frame when catching up after a slow frame. */
+    private static final int MAX_STEPS_PER_FRAME = 5;
+
+    /** Turns variable frame times into a whole number of fixed logic steps (Simulation.TICKS_PER_SECOND per second). */
+    private final FixedStepLoop loop = new FixedStepLoop(Simulation.TICKS_PER_SECOND, MAX_STEPS_PER_FRAME);
+
+    /** Length of one tick, in nanoseconds (for interpolating snapshots in real time). */
+    private static final long STEP_NANOS = 1_000_000_000L / Simulation.TICKS_PER_SECOND;
+
+    // ------------------ THREADING ------------------
+
+    /** True to run ticks on a SimulationThread (see useSimulationThread()). */
+    private boolean threaded;
+
+    /** Runs the ticks when threaded, once assets are loaded; null otherwise. */
+    private SimulationThread simulationThread;
+
+    /** Latest state to draw, handed from the simulation to render() without locks. */
+    private final TripleBuffer<RenderSnapshot> snapshots = new TripleBuffer<>(RenderSnapshot::new);
+
     // ------------------ RENDERING CAMERA / VIEWPORT ------------------
 
     /**
@@ -47,14 +121,96 @@ public class MainGame extends ApplicationAdapter {
      */
     private FitViewport viewport;
 
+    /** Offscreen image at the virtual resolution that the world is drawn into, then scaled up. */
+    private VirtualScreen virtualScreen;
+
     /** SpriteBatch efficiently draws many sprites (textures/regions) with minimal state changes. */
     private SpriteBatch batch;
 
-    // ------------------ GAME OBJECTS ------------------
+    /** Loads (in the background) and owns every texture in the game. */
+    private Assets assets;
+
+    /** Shares sprite sets between entities so each sprite folder is loaded once. */
+    private SpriteSetCache sprites;
+
+    /** Progress bar shown until assets are ready; null once the game is running. */
+    private LoadingScreen loadingScreen;
+
+    // ------------------ TILE MAP ------------------
+
+    /** Draws the chunks of the map that are on screen; null until assets are loaded. */
+    private TileMapRenderer mapRenderer;
+
+    /** Decorations that never move, drawn over the map from vertices built once (see getDecorations()). */
+    private StaticLayer decorations;
+
+    // ------------------ GAME LOGIC ------------------
+
+    /** Entities to reserve room for up front (the world grows past this if needed). */
+    private static final int INITIAL_ENTITY_CAPACITY = 1024;
+
+    /** Entities, systems, map collision and input: everything except drawing. */
+    private Simulation simulation;
+
+    /** Key presses/releases with timestamps, recorded as LibGDX delivers them. */
+    private final KeyEventQueue keyEvents = new KeyEventQueue();
+
+    // ------------------ RECORD / REPLAY ------------------
+
+    /** Where to record this session's input (see recordTo()), or null. */
+    private File recordFile;
+
+    /** Recording to play back instead of the keyboard (see replayFrom()), or null. */
+    private File replayFile;
+
+    /** Active recorder/replay once the game is running; null when not in use. */
+    private InputRecorder recorder;
+    private InputReplay replay;
+
+    /** True once every tick of the replay has been played (set by the simulation's thread). */
+    private volatile boolean replayFinished;
+
+    /** Seed of MathUtils.random for this session (from the replay, when replaying). */
+    private long rngSeed;
 
-    /** The controllable player entity that handles input, movement, and animation. */
+    /** Draws every entity with a sprite. */
+    private final RenderSystem renderSystem = new RenderSystem();
+
+    /** This frame's sprites, drawn back to front by Y once everything is queued. */
+    private final RenderQueue renderQueue = new RenderQueue(INITIAL_ENTITY_CAPACITY);
+
+    /** Sprites per instanced draw call at most. */
+    private static final int MAX_INSTANCES = 16384;
+
+    /**
+     * Draws the sprites with GPU instancing when OpenGL 3.0 is available (see DesktopLauncher);
+     * null otherwise, and the SpriteBatch draws them.
+     */
+    private InstancedSpriteRenderer instancedSprites;
+
+    /** The controllable player entity; null until assets have finished loading. */
     private Player player;
 
+    // ------------------ PERFORMANCE HUD ------------------
+
+    /** Key that shows/hides the performance overlay. */
+    public static final int PERF_HUD_KEY = Input.Keys.F3;
+
+    /** Time spent in each phase of render() (always measured; it's a few nanoTime() calls). */
+    private final FrameStats frameStats = new FrameStats();
+
+    /** Overlay showing frameStats, GL and memory numbers; hidden until PERF_HUD_KEY is pressed. */
+    private PerfHud perfHud;
+
+    /** Key that writes a frame-time report (CSV and JSON) into FRAME_REPORT_FOLDER. */
+    public static final int FRAME_REPORT_KEY = Input.Keys.F4;
+
+    /** Folder the FRAME_REPORT_KEY reports go to, relative to the working directory. */
+    public static final String FRAME_REPORT_FOLDER = "perf";
+
+    /** Where to write a frame-time report when the game closes (see reportTo()), or null. */
+    private File reportFile;
+
     // ------------------ LIFECYCLE: CREATE ------------------
 
     /**
@@ -72,12 +228,71 @@ public class MainGame extends ApplicationAdapter {
         // 3) Start the camera looking at the center of the virtual world.
         camera.position.set(VIRTUAL_WIDTH / 2f, VIRTUAL_HEIGHT / 2f, 0);
 
-        // 4) Create the SpriteBatch used to render textures.
+        // 4) Receive key events (with timestamps) instead of polling key state.
+        Gdx.input.setInputProcessor(keyEvents);
+
+        // 5) Create the SpriteBatch used to render textures, the low-resolution image the world is drawn into,
+        //    and the (empty) layer of static decorations.
         batch = new SpriteBatch();
+        virtualScreen = new VirtualScreen(VIRTUAL_WIDTH, VIRTUAL_HEIGHT);
+        decorations = new StaticLayer();
+        if (InstancedSpriteRenderer.isSupported()) instancedSprites = new InstancedSpriteRenderer(MAX_INSTANCES);
+
+        // 6) Create the game logic and open the map (neither needs textures).
+        simulation = new Simulation(INITIAL_ENTITY_CAPACITY);
+        simulation.setView(VIRTUAL_WIDTH, VIRTUAL_HEIGHT); // Snapshots hold only entities near the camera.
+
+        // 7) Performance overlay (hidden until PERF_HUD_KEY is pressed).
+        perfHud = new PerfHud(frameStats);
 
-        // 5) Create the player roughly in the middle of the world.
-        //    Speed is in world units per second; tweak for your desired feel.
-        player = new Player(160, 90, 60f);
+        // 8) Queue every asset. Nothing blocks here: loading happens a little
+        //    each frame in render(), so the first frame appears immediately.
+        assets = new Assets();
+        sprites = new SpriteSetCache(assets);
+        Player.queueAssets(sprites);
+        Tileset.queueAssets(assets);
+        loadingScreen = new LoadingScreen();
+    }
+
+    /**
+     * Called once, on the first frame after all queued assets are ready.
+     * Create game objects that need textures here.
+     */
+    private void onAssetsLoaded() {
+        loadingScreen.dispose();
+        loadingScreen = null;
+
+        // Draw the map from the chunks the simulation streams in; their vertices are built in the background.
+        Tileset tileset = new Tileset(assets);
+        simulation.getChunks().setTileset(tileset);
+        mapRenderer = new TileMapRenderer(simulation.getChunks(), tileset);
+
+        // Seed the game's random numbers; a replay reuses the recorded seed so it plays out identically.
+        if (replayFile != null) {
+            replay = new InputReplay(replayFile);
+            rngSeed = replay.getSeed();
+        } else {
+            rngSeed = TimeUtils.millis();
+        }
+        MathUtils.random.setSeed(rngSeed);
+        if (recordFile != null) recorder = new InputRecorder(recordFile, rngSeed);
+
+        // Create the player roughly in the middle of the world.
+        // Speed is in world units per second; tweak for your desired feel.
+        player = new Player(simulation.getWorld(), 160, 90, Player.DEFAULT_SPEED, sprites);
+
+        // Stream the map around the player; its surroundings load now, so the first frame isn't missing tiles.
+        simulation.follow(player.getId());
+        publishSnapshot(TimeUtils.nanoTime(), 0);
+
+        // Frame-time reports cover play only, not the loading screen.
+        frameStats.resetHistograms();
+
+        // From here on, only the simulation thread (if any) touches the simulation.
+        if (threaded) {
+            simulationThread = new SimulationThread(loop, this::runTicks);
+            simulationThread.start();
+        }
     }
 
     // ------------------ LIFECYCLE: RENDER (PER-FRAME LOOP) ------------------
@@ -86,37 +301,290 @@ public class MainGame extends ApplicationAdapter {
      * Called continuously (typically ~60 times/second). Do game logic and drawing here.
      * Order matters:
      *  1) Clear screen
-     *  2) Update game state with delta time
+     *  2) Update game state in fixed steps (FixedStepLoop), unless a SimulationThread does it,
+     *     and take the latest RenderSnapshot
      *  3) Update camera (if following something)
-     *  4) Bind batch to camera projection
-     *  5) Draw world
+     *  4) Draw the tile map and the static decorations (into the VirtualScreen)
+     *  5) Draw entities with the camera's projection (instanced or SpriteBatch), then scale the
+     *     VirtualScreen up to the window
+     *  6) Performance overlay (if shown); FRAME_REPORT_KEY writes a frame-time report
+     * Each phase is timed into frameStats for the overlay.
+     *
+     * Once loading is done this method must not allocate (no new objects, boxing,
+     * varargs or iterators): per-frame garbage causes GC stutter.
+     * "gradle allocationCheck" verifies this.
      */
     @Override
     public void render() {
+        long frameNanos = TimeUtils.nanoTime(); // Same clock as the key event timestamps.
+        frameStats.startFrame();
+
         // ---- 1) CLEAR THE FRAME BUFFER ----
-        // Set background color once per frame (RGBA), then clear the color buffer.
-        Gdx.gl.glClearColor(0.11f, 0.13f, 0.17f, 1f);
+        // Set background color once per frame (RGBA), then clear the color buffer (and the letterbox bars).
+        Gdx.gl.glClearColor(BACKGROUND_R, BACKGROUND_G, BACKGROUND_B, 1f);
         Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
+        frameStats.endPhase(FrameStats.CLEAR);
+
+        // ---- LOADING: spend a small time slice on assets, show progress until done ----
+        if (player == null) {
+            if (!assets.update(LOAD_BUDGET_MS)) {
+                renderLoading();
+                return;
+            }
+            onAssetsLoaded();
+        }
 
-        // ---- 2) UPDATE GAME LOGIC ----
-        // Delta time is the time (in seconds) since last frame; use it for framerate-independent movement.
-        float dt = Gdx.graphics.getDeltaTime();
-        player.update(dt);
+        // ---- 2) UPDATE GAME LOGIC, TAKE THE LATEST SNAPSHOT ----
+        // Delta time is the time (in seconds) since last frame. It is fed into the fixed-step
+        // loop, which runs zero or more equal-sized updates so movement is frame-rate independent.
+        if (simulationThread == null) {
+            int steps = loop.advance(Gdx.graphics.getDeltaTime());
+            if (steps > 0) runTicks(steps, frameNanos);
+        } else {
+            checkSimulationThread(); // It ticks on its own.
+        }
+        boolean fresh = snapshots.acquire();
+        RenderSnapshot snapshot = snapshots.getReadBuffer();
+        if (fresh) frameStats.recordTick(snapshot.tickCpuNanos);
+
+        // How far to blend toward the snapshot's latest tick; on a thread, by how long ago that tick ended.
+        float alpha = (simulationThread == null) ? loop.getAlpha()
+                : MathUtils.clamp((frameNanos - snapshot.tickNanos) / (float) STEP_NANOS, 0f, 1f);
+        frameStats.endPhase(FrameStats.UPDATE);
 
         // ---- 3) CAMERA FOLLOW (PIXEL-PERFECT) ----
         // Make the camera center on the player and snap to integer coordinates
         // so pixel art stays razor sharp (no subpixel blur).
-        camera.position.set(VIRTUAL_WIDTH / 2f, VIRTUAL_HEIGHT / 2f, 0); // fixed camera
+        followPlayer(snapshot, alpha);
         camera.update();
+        frameStats.endPhase(FrameStats.CAMERA);
+
+        // ---- 4) DRAW THE TILE MAP AND STATIC DECORATIONS ----
+        // Everything until step 5's blit goes into the virtual-resolution image, not the window.
+        virtualScreen.begin(BACKGROUND_R, BACKGROUND_G, BACKGROUND_B, 1f);
+        // Only the chunks intersecting the camera view are drawn, from the snapshot's loaded chunks.
+        mapRenderer.render(camera, snapshot.chunks);
+        // Decorations are drawn from their prebuilt meshes; only cells changed since the last frame are rebuilt.
+        decorations.render(camera);
+        frameStats.endPhase(FrameStats.MAP);
+
+        // ---- 5) DRAW SPRITES ----
+        // Queue every entity in view, then draw them with the camera's projection: with GPU
+        // instancing if available, else with the batch. Read the draw counts before the blit's begin() resets them.
+        renderSystem.render(snapshot, renderQueue, alpha, camera); // Off-screen entities are skipped.
+        int spriteRenderCalls, maxSpritesPerCall;
+        if (instancedSprites != null) {
+            instancedSprites.begin(camera.combined);
+            renderQueue.draw(instancedSprites); // Sorted: lower characters cover the ones behind them.
+            instancedSprites.end();
+            spriteRenderCalls = instancedSprites.renderCalls;
+            maxSpritesPerCall = instancedSprites.maxInstancesInCall;
+        } else {
+            batch.setProjectionMatrix(camera.combined);
+            batch.maxSpritesInBatch = 0; // Count this pass only.
+            batch.begin();
+            renderQueue.draw(batch);
+            batch.end();
+            spriteRenderCalls = batch.renderCalls;
+            maxSpritesPerCall = batch.maxSpritesInBatch;
+        }
+        virtualScreen.end();
 
-        // ---- 4) DRAW SPRITES ----
-        // Tell the batch to use the camera's projection, then draw the player.
+        // Scale the finished picture up to the game area of the window (integer scale, see resize()).
+        HdpiUtils.glViewport(viewport.getScreenX(), viewport.getScreenY(), viewport.getScreenWidth(), viewport.getScreenHeight());
+        virtualScreen.draw(batch);
+        frameStats.endPhase(FrameStats.SPRITES);
+
+        // ---- 6) PERFORMANCE OVERLAY ----
+        if (Gdx.input.isKeyJustPressed(PERF_HUD_KEY)) perfHud.setVisible(!perfHud.isVisible());
+        if (Gdx.input.isKeyJustPressed(FRAME_REPORT_KEY)) writeFrameReports();
+        perfHud.setSpriteStats(renderSystem.getDrawnCount(), renderSystem.getCulledCount(), spriteRenderCalls, maxSpritesPerCall);
+        perfHud.render(batch, Gdx.graphics.getDeltaTime());
+        frameStats.endPhase(FrameStats.HUD);
+        frameStats.endFrame();
+    }
+
+    /**
+     * Runs "steps" ticks whose last one ends at frameNanos, then publishes a snapshot of
+     * the result. Runs on the render thread, or on the SimulationThread when there is one.
+     */
+    private void runTicks(int steps, long frameNanos) {
+        long start = TimeUtils.nanoTime();
+        InputState input = simulation.getInput();
+        for (int i = 0; i < steps; i++) {
+            // Each tick gets the key events that happened before its end in real time. Ticks
+            // catching up after a slow frame end in the past; the last one takes everything
+            // up to now, so a key press shows up on screen as soon as possible.
+            long ticksAfter = steps - 1 - i;
+            long tickEnd = (ticksAfter == 0) ? frameNanos
+                    : frameNanos - (long) ((ticksAfter + loop.getAlpha()) * loop.getStepSeconds() * 1e9);
+            if (replay == null) {
+                input.update(keyEvents, tickEnd);
+            } else if (replay.hasNext()) {
+                input.set(replay.next()); // Recorded input instead of the keyboard.
+            } else {
+                finishReplay();
+                break;
+            }
+            if (recorder != null) recorder.record(input.getBits());
+            simulation.tick(loop.getStepSeconds());
+        }
+        publishSnapshot(frameNanos, (TimeUtils.nanoTime() - start) / steps);
+    }
+
+    /** Copies the simulation's current state into a snapshot and hands it to render(). */
+    private void publishSnapshot(long tickNanos, long tickCpuNanos) {
+        RenderSnapshot snapshot = snapshots.getWriteBuffer();
+        simulation.capture(snapshot);
+        snapshot.tickNanos = tickNanos;
+        snapshot.tickCpuNanos = tickCpuNanos;
+        snapshots.publish();
+    }
+
+    /** Rethrows, on the render thread, an exception that stopped the simulation thread. */
+    private void checkSimulationThread() {
+        Throwable failure = simulationThread.getFailure();
+        if (failure != null) throw new IllegalStateException("The simulation thread stopped", failure);
+    }
+
+    /**
+     * Reports whether the replay ended in the recorded state, then quits
+     * (a replay is a fixed workload; the session is over when it runs out).
+     */
+    private void finishReplay() {
+        if (replayFinished) return;
+        replayFinished = true;
+        Gdx.app.log("Replay", replay.getTicks() + " ticks replayed; final state "
+                + (isReplayInSync() ? "matches the recording." : "DIFFERS from the recording."));
+        Gdx.app.exit();
+    }
+
+    /**
+     * Centers the camera on the player's drawn (interpolated) position, kept inside
+     * the map so the view never shows past its edges.
+     */
+    private void followPlayer(RenderSnapshot snapshot, float alpha) {
+        if (!snapshot.hasFollowed) return;
+        float x = snapshot.followPrevX + (snapshot.followX - snapshot.followPrevX) * alpha;
+        float y = snapshot.followPrevY + (snapshot.followY - snapshot.followPrevY) * alpha;
+
+        float halfW = VIRTUAL_WIDTH / 2f, halfH = VIRTUAL_HEIGHT / 2f;
+        x = MathUtils.clamp(x, halfW, mapRenderer.getWorldWidth() - halfW);
+        y = MathUtils.clamp(y, halfH, mapRenderer.getWorldHeight() - halfH);
+        camera.position.set(Math.round(x), Math.round(y), 0);
+    }
+
+    /** Draws the loading progress bar centered in the virtual screen. */
+    private void renderLoading() {
+        camera.update();
         batch.setProjectionMatrix(camera.combined);
         batch.begin();
-        player.render(batch);
+        loadingScreen.render(batch, VIRTUAL_WIDTH, VIRTUAL_HEIGHT, assets.getProgress());
         batch.end();
     }
 
+    // ------------------ ACCESSORS ------------------
+
+    /**
+     * Runs the game logic on its own thread instead of inside render(). Call before create().
+     * Tools that drive render() frame by frame (headless harnesses, benchmarks) leave this off,
+     * so each render() runs a known number of ticks.
+     */
+    public void useSimulationThread(boolean threaded) {
+        this.threaded = threaded;
+    }
+
+    /** Records every tick's input to a file (written on dispose()). Call before create(). */
+    public void recordTo(File file) {
+        recordFile = file;
+    }
+
+    /**
+     * Writes a frame-time report (see FrameTimeReport) to a file when the game closes:
+     * JSON if its name ends in ".json", else CSV. Call before create().
+     */
+    public void reportTo(File file) {
+        reportFile = file;
+    }
+
+    /** Plays back a recording instead of reading the keyboard, then exits. Call before create(). */
+    public void replayFrom(File file) {
+        replayFile = file;
+    }
+
+    /** True once a replay has played all its ticks. */
+    public boolean isReplayFinished() {
+        return replayFinished;
+    }
+
+    /** True if the game state now matches the end of the recording being replayed. */
+    public boolean isReplayInSync() {
+        return replay != null && simulation.getWorld().checksum() == replay.getExpectedChecksum();
+    }
+
+    /**
+     * World holding every entity (used by tools such as the headless harnesses).
+     * Only safe to touch from the thread running the ticks.
+     */
+    public EntityWorld getWorld() {
+        return simulation.getWorld();
+    }
+
+    /** The game logic being run and drawn. */
+    public Simulation getSimulation() {
+        return simulation;
+    }
+
+    /** Frame, phase and tick timings, e.g. for writing a FrameTimeReport. */
+    public FrameStats getFrameStats() {
+        return frameStats;
+    }
+
+    /** Timestamped key events; tools can push() events into it to drive the game. */
+    public KeyEventQueue getKeyEvents() {
+        return keyEvents;
+    }
+
+    /** This tick's input; rebind keys through getInput().getBindings(). */
+    public InputState getInput() {
+        return simulation.getInput();
+    }
+
+    /** Performance overlay; tools can show it with getPerfHud().setVisible(true). */
+    public PerfHud getPerfHud() {
+        return perfHud;
+    }
+
+    /**
+     * Layer of decorations that never move (trees, fences, ground decor), drawn over the
+     * map and under the characters. Add and remove sprites on the render thread.
+     */
+    public StaticLayer getDecorations() {
+        return decorations;
+    }
+
+    /** The player, or null while assets are still loading. */
+    public Player getPlayer() {
+        return player;
+    }
+
+    /** Writes the frame-time report as CSV and JSON into FRAME_REPORT_FOLDER, named after the current time. */
+    private void writeFrameReports() {
+        String name = FRAME_REPORT_FOLDER + "/frames-" + TimeUtils.millis();
+        writeFrameReport(new File(name + ".csv"));
+        writeFrameReport(new File(name + ".json"));
+    }
+
+    /** Writes the frame-time report; a failure is logged, not fatal (it's only a report). */
+    private void writeFrameReport(File file) {
+        try {
+            FrameTimeReport.write(frameStats, file);
+            Gdx.app.log("MainGame", "Frame-time report written to " + file);
+        } catch (IOException e) {
+            Gdx.app.error("MainGame", "Could not write frame-time report " + file, e);
+        }
+    }
+
     // ------------------ LIFECYCLE: RESIZE ------------------
 
     /**
@@ -142,6 +610,7 @@ public class MainGame extends ApplicationAdapter {
         // The boolean "centerCamera" re-centers the camera to the world center.
         viewport.setScreenBounds(vpX, vpY, vpW, vpH);
         viewport.apply(true);
+        perfHud.resize(vpW, vpH); // The overlay is drawn in screen pixels over the game area.
     }
 
     // ------------------ LIFECYCLE: DISPOSE ------------------
@@ -152,8 +621,19 @@ public class MainGame extends ApplicationAdapter {
      */
     @Override
     public void dispose() {
-        player.dispose(); // Player owns textures; cleanly free them.
+        if (simulationThread != null) simulationThread.shutdown(); // Before touching the simulation.
+        if (recorder != null) recorder.finish(simulation.getWorld().checksum()); // Before the player is removed.
+        if (reportFile != null) writeFrameReport(reportFile);
+        if (player != null) player.dispose(); // Removes the entity and returns its sprite set.
+        if (loadingScreen != null) loadingScreen.dispose();
+        perfHud.dispose();
+        if (mapRenderer != null) mapRenderer.dispose();
+        simulation.dispose(); // Stops chunk loading and closes the map file.
+        assets.dispose(); // Assets owns every texture; cleanly free them.
+        virtualScreen.dispose(); // Frame buffer and its texture.
+        decorations.dispose(); // Its cell meshes and shader.
+        if (instancedSprites != null) instancedSprites.dispose();
         batch.dispose();  // Batch owns GPU buffers; release them.
-        // Note: If you add maps, atlases, or other disposables, dispose them here too.
+        // Note: If you add atlases or other disposables, dispose them here too.
     }
 }
@@ -0,0 +1,129 @@
+package core;
+
+import com.badlogic.gdx.utils.IntArray;
+import core.assets.SpriteSet;
+import core.ecs.EntityWorld;
+import core.map.ChunkStreamer;
+import core.map.ChunkWindow;
+
+/**
+ * RenderSnapshot is everything the render thread needs to draw one tick:
+ * where each visible entity was before and after the tick, which frame of its
+ * SpriteSet to show, where the camera should follow, and which map chunks are
+ * loaded.
+ *
+ * The simulation fills a snapshot after its ticks (Simulation.capture()) and
+ * hands it over through a TripleBuffer, so drawing never reads the live
+ * EntityWorld while the simulation thread is changing it. Snapshots are reused:
+ * arrays grow when more entities are visible, and are never shrunk.
+ *
+ * Only entities with a SpriteSet are copied, and usually only those near the
+ * camera (see Simulation.setView()); index i here is not the entity's index in
+ * the EntityWorld.
+ */
+public final class RenderSnapshot {
+
+    // ------------------ ENTITIES ------------------
+
+    /** Number of entities to draw (valid indices are 0..count-1). */
+    public int count;
+
+    /** Position after the tick, and before it (for interpolation). */
+    public float[] x, y, prevX, prevY;
+
+    /** Frames to draw from, and which one (see SpriteSet.frameIndex()). */
+    public SpriteSet[] sprite;
+    public byte[] frame;
+
+    // ------------------ CAMERA ------------------
+
+    /** True if the followed entity (the player) exists; followX/Y are valid only then. */
+    public boolean hasFollowed;
+
+    /** Followed entity's position after the tick, and before it. */
+    public float followX, followY, followPrevX, followPrevY;
+
+    // ------------------ MAP ------------------
+
+    /** Chunks loaded around the followed entity. */
+    public final ChunkWindow chunks = new ChunkWindow(ChunkStreamer.LOAD_RADIUS);
+
+    // ------------------ TIMING ------------------
+
+    /** Ticks the simulation had run when this was captured. */
+    public long tick;
+
+    /** When the captured tick ended (TimeUtils.nanoTime()); 0 if not set. */
+    public long tickNanos;
+
+    /** CPU time one tick took on the simulation's thread, averaged over the ticks behind this snapshot. */
+    public long tickCpuNanos;
+
+    public RenderSnapshot() {
+        allocate(256);
+    }
+
+    // ------------------ CAPTURE ------------------
+
+    /** Copies the drawable entities of "world" and the followed entity (index, or -1). */
+    void capture(EntityWorld world, int followedIndex) {
+        int n = world.getCount();
+        if (n > x.length) allocate(Math.max(n, x.length * 2));
+
+        int out = 0;
+        for (int i = 0; i < n; i++)
+            if (copy(world, i, out)) out++;
+        finish(world, followedIndex, out);
+    }
+
+    /** Like capture(world, followedIndex), but only the entities whose ids are listed (e.g. the visible ones). */
+    void capture(EntityWorld world, int followedIndex, IntArray entityIds) {
+        int n = entityIds.size;
+        if (n > x.length) allocate(Math.max(n, x.length * 2));
+
+        int[] ids = entityIds.items;
+        int out = 0;
+        for (int k = 0; k < n; k++)
+            if (copy(world, world.indexOf(ids[k]), out)) out++;
+        finish(world, followedIndex, out);
+    }
+
+    /** Copies entity index i into slot "out" if it has a sprite; returns whether it did. */
+    private boolean copy(EntityWorld world, int i, int out) {
+        SpriteSet set = world.sprite[i];
+        if (set == null) return false;
+        x[out] = world.x[i];
+        y[out] = world.y[i];
+        prevX[out] = world.prevX[i];
+        prevY[out] = world.prevY[i];
+        sprite[out] = set;
+        frame[out] = (byte) SpriteSet.frameIndex(world.facing[i],
+                (world.flags[i] & EntityWorld.MOVING) != 0, world.stateTime[i]);
+        return true;
+    }
+
+    /** Sets the entity count to "out" and copies the followed entity. */
+    private void finish(EntityWorld world, int followedIndex, int out) {
+        // Drop references left over from a bigger earlier snapshot.
+        for (int i = out; i < count; i++) sprite[i] = null;
+        count = out;
+
+        hasFollowed = followedIndex >= 0;
+        if (hasFollowed) {
+            followX = world.x[followedIndex];
+            followY = world.y[followedIndex];
+            followPrevX = world.prevX[followedIndex];
+            followPrevY = world.prevY[followedIndex];
+        }
+    }
+
+    private void allocate(int capacity) {
+        x = new float[capacity];
+        y = new float[capacity];
+        prevX = new float[capacity];
+        prevY = new float[capacity];
+        sprite = new SpriteSet[capacity];
+        frame = new byte[capacity];
+        count = 0;
+    }
+}
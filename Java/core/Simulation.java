@@ -0,0 +1,254 @@
+package core;
+
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.IntArray;
+import core.ecs.AnimationSystem;
+import core.ecs.EntityWorld;
+import core.ecs.InputSystem;
+import core.ecs.MovementSystem;
+import core.ecs.SystemScheduler;
+import core.input.InputBindings;
+import core.input.InputState;
+import core.map.ChunkProvider;
+import core.map.ChunkStreamer;
+import core.map.CollisionMap;
+import core.map.MapFile;
+import core.map.ProceduralChunkProvider;
+import core.map.TileChunk;
+import core.perf.GameEvents;
+
+import java.io.File;
+
+/**
+ * Simulation is the game logic without any drawing: the entities, the systems
+ * that update them every tick, the map tiles they collide with, and the input
+ * that drives the player.
+ *
+ * It needs no window, OpenGL context or LibGDX backend, so the same logic runs
+ * inside MainGame (which adds rendering on top), under the headless backend,
+ * or in a plain loop as fast as the CPU allows (see headless.SimulationRunner).
+ *
+ * Per tick:
+ *  1) the caller fills getInput() (from the keyboard, a replay, a script...)
+ *  2) tick(delta) runs input -> movement, and animation, over every entity
+ *     (on several cores when there are many entities, see SystemScheduler)
+ *  3) map chunks are paged in/out around the followed entity (usually the player)
+ * and, whenever the state should be drawn, capture() copies it into a RenderSnapshot:
+ * with a view size set (setView()), only the entities the spatial hash finds
+ * around the camera's view, so drawing costs what is visible, not the world's population.
+ *
+ * Everything here belongs to the thread that calls tick(), which may be a
+ * SimulationThread rather than the render thread.
+ */
+public final class Simulation implements Disposable {
+
+    // ------------------ WORLD ------------------
+
+    /** Game logic updates per second. */
+    public static final int TICKS_PER_SECOND = 60;
+
+    /** Map file written by the "generateMap" Gradle task; used instead of generating the map when present. */
+    public static final String MAP_FILE = "assets/maps/overworld.map";
+
+    /** Size of the generated overworld, in chunks (313 x 32 = 10,016 tiles per side). */
+    public static final int WORLD_CHUNKS = 313;
+
+    /** Seed of the generated overworld; the same seed always gives the same map. */
+    public static final long WORLD_SEED = 20240611L;
+
+    // ------------------ STATE ------------------
+
+    /** Where map chunks come from (map file or generator). */
+    private final ChunkProvider mapChunks;
+
+    /** Keeps the chunks around the followed entity loaded, reading them in the background. */
+    private final ChunkStreamer chunks;
+
+    /** Which tiles block movement; filled in by the streamer as chunks load. */
+    private final CollisionMap collision;
+
+    /** Every entity's data (position, velocity, facing, animation time), stored as arrays. */
+    private final EntityWorld world;
+
+    /** Actions held this tick; set by the caller before each tick(). */
+    private final InputState input = new InputState(InputBindings.defaults());
+
+    /** Systems that update all entities each tick. */
+    private final InputSystem inputSystem = new InputSystem();
+    private final MovementSystem movementSystem = new MovementSystem();
+    private final AnimationSystem animationSystem = new AnimationSystem();
+
+    /** Runs the systems, split over several cores once there are enough entities. */
+    private final SystemScheduler scheduler;
+
+    /** Entity the map is streamed around, or -1. */
+    private int followedId = -1;
+
+    /** Ticks run so far. */
+    private long tick;
+
+    /** Reused flight recorder event around each tick (see GameEvents). */
+    private final GameEvents.Tick tickEvent = new GameEvents.Tick();
+
+    // ------------------ VIEW (CULLING) ------------------
+
+    /**
+     * World units captured beyond each edge of the view: covers a sprite drawn up
+     * and right of its position, and the camera moving during one tick.
+     */
+    public static final float CULL_MARGIN = 64f;
+
+    /** Size of the area the camera shows (0 = capture every entity). */
+    private float viewWidth, viewHeight;
+
+    /** Ids of the entities around the view, reused by capture(). */
+    private final IntArray visibleIds = new IntArray(false, 256);
+
+    // ------------------ CONSTRUCTOR ------------------
+
+    /** Creates a simulation of the overworld (see openWorldMap()) using every core. */
+    public Simulation(int initialEntityCapacity) {
+        this(openWorldMap(), initialEntityCapacity, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates a simulation on the given map. The simulation owns the map from now
+     * on and closes it in dispose() if it is a MapFile.
+     *
+     * @param threads threads the systems may use (1 = only the thread calling tick())
+     */
+    public Simulation(ChunkProvider map, int initialEntityCapacity, int threads) {
+        mapChunks = map;
+        scheduler = new SystemScheduler(threads);
+        world = new EntityWorld(initialEntityCapacity);
+        chunks = new ChunkStreamer(map);
+        collision = new CollisionMap(map.getWidthInChunks(), map.getHeightInChunks());
+        chunks.setCollisionMap(collision);
+        movementSystem.setCollisionMap(collision);
+
+        // input -> movement (direction), animation on its own; see SystemScheduler.
+        inputSystem.setInput(input);
+        scheduler.add(inputSystem);
+        scheduler.add(movementSystem, inputSystem);
+        scheduler.add(animationSystem);
+    }
+
+    /** Reads the overworld from its map file if one was generated, else generates it on the fly. */
+    public static ChunkProvider openWorldMap() {
+        File file = new File(MAP_FILE);
+        return file.exists() ? new MapFile(file) : new ProceduralChunkProvider(WORLD_CHUNKS, WORLD_CHUNKS, WORLD_SEED);
+    }
+
+    // ------------------ PER TICK ------------------
+
+    /**
+     * Streams the map around an entity (usually the player) from now on, loading
+     * its surroundings right away.
+     */
+    public void follow(int entityId) {
+        followedId = entityId;
+        int i = world.indexOf(entityId);
+        chunks.preload(world.x[i], world.y[i]);
+    }
+
+    /** Runs every system once over all entities, advancing the game by one fixed step. */
+    public void tick(float delta) {
+        boolean recorded = tickEvent.isEnabled();
+        if (recorded) tickEvent.begin();
+
+        // actions -> direction of controlled entities -> facing + position; animation clocks alongside.
+        scheduler.run(world, delta);
+
+        // Page map chunks in and out around the followed entity's new position.
+        int followed = world.indexOf(followedId);
+        if (followed >= 0) chunks.update(world.x[followed], world.y[followed]);
+        tick++;
+
+        if (recorded) {
+            tickEvent.end();
+            tickEvent.tick = tick;
+            tickEvent.entities = world.getCount();
+            tickEvent.commit();
+        }
+    }
+
+    /**
+     * Copies what the renderer needs (visible entities, followed entity, loaded chunks)
+     * into a snapshot, so another thread can draw it while ticks go on. Doesn't allocate
+     * once the snapshot's arrays are big enough.
+     */
+    public void capture(RenderSnapshot out) {
+        int followed = world.indexOf(followedId);
+        if (followed >= 0 && viewWidth > 0) {
+            // Place the view like the camera does (MainGame.followPlayer): on the followed entity, inside the world.
+            float halfW = viewWidth / 2f, halfH = viewHeight / 2f;
+            float worldW = mapChunks.getWidthInChunks() * (float) TileChunk.WORLD_SIZE;
+            float worldH = mapChunks.getHeightInChunks() * (float) TileChunk.WORLD_SIZE;
+            float cx = MathUtils.clamp(world.x[followed], halfW, worldW - halfW);
+            float cy = MathUtils.clamp(world.y[followed], halfH, worldH - halfH);
+
+            visibleIds.clear();
+            world.spatial.queryRect(cx - halfW - CULL_MARGIN, cy - halfH - CULL_MARGIN,
+                    cx + halfW + CULL_MARGIN, cy + halfH + CULL_MARGIN, visibleIds);
+            out.capture(world, followed, visibleIds);
+        } else {
+            out.capture(world, followed);
+        }
+        chunks.capture(out.chunks);
+        out.tick = tick;
+    }
+
+    /**
+     * Sets the size of the area the camera shows around the followed entity, in world
+     * units; capture() then skips entities well outside it. 0 captures every entity.
+     */
+    public void setView(float width, float height) {
+        viewWidth = width;
+        viewHeight = height;
+    }
+
+    /**
+     * Turns collision with solid tiles on (the default) or off. With it off, movement
+     * no longer depends on which chunks the loader thread has finished, so a run is
+     * reproducible tick for tick even far from the followed entity (see SimulationRunner).
+     */
+    public void setCollisionEnabled(boolean enabled) {
+        movementSystem.setCollisionMap(enabled ? collision : null);
+    }
+
+    // ------------------ ACCESSORS ------------------
+
+    public EntityWorld getWorld() {
+        return world;
+    }
+
+    /** Input for the next tick; set it (update/poll/set) before calling tick(). */
+    public InputState getInput() {
+        return input;
+    }
+
+    /** Loaded map chunks (also what the tile map is drawn from). */
+    public ChunkStreamer getChunks() {
+        return chunks;
+    }
+
+    public CollisionMap getCollision() {
+        return collision;
+    }
+
+    /** Ticks run so far. */
+    public long getTick() {
+        return tick;
+    }
+
+    // ------------------ CLEANUP ------------------
+
+    /** Stops chunk loading and closes the map. Entities are left to their owners. */
+    @Override
+    public void dispose() {
+        scheduler.dispose();
+        chunks.dispose();
+        if (mapChunks instanceof MapFile) ((MapFile) mapChunks).dispose();
+    }
+}
@@ -0,0 +1,207 @@
+package core.assets;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.assets.loaders.TextureAtlasLoader;
+import com.badlogic.gdx.assets.loaders.TextureLoader;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.ObjectLongMap;
+import com.badlogic.gdx.utils.TimeUtils;
+import core.perf.GameEvents;
+
+/**
+ * Assets is the central place that loads and owns textures.
+ *
+ * It wraps LibGDX's AssetManager, which:
+ *  - decodes image files into Pixmaps on a background thread
+ *  - uploads the decoded pixels to the GPU on the render thread, a few at a time
+ *
+ * Usage:
+ *  - create(): queue everything with queueSprites(...)
+ *  - render(): call update(budget) every frame until it returns true,
+ *    showing getProgress() on a loading screen meanwhile
+ *  - afterwards: look up frames with region(folder, name), usually through SpriteSetCache
+ *
+ * AssetManager reference-counts everything: every queueSprites() call must be
+ * matched by one unloadSprites() call before the textures are freed.
+ *
+ * If the packed atlas (see the "packTextures" Gradle task) exists, every sprite is read
+ * from it; otherwise each frame is loaded from its loose PNG in assets/<folder>/.
+ *
+ * Every update() slice and every finished asset is a flight recorder event
+ * (game.AssetUpdate, game.AssetLoaded; see GameEvents).
+ */
+public class Assets implements Disposable {
+
+    // ------------------ CONSTANTS ------------------
+
+    /** Packed sprite atlas written by the "packTextures" Gradle task. */
+    public static final String SPRITE_ATLAS = "assets/atlas/sprites.atlas";
+
+    /** File extension of the loose sprite images. */
+    private static final String LOOSE_EXTENSION = ".PNG";
+
+    // ------------------ STATE ------------------
+
+    /** Does the background decoding, GPU upload, and reference counting. */
+    private final AssetManager manager = new AssetManager();
+
+    /** True when the packed atlas exists and sprites should come from it. */
+    private final boolean useAtlas;
+
+    /** Loader settings for loose PNGs: "nearest neighbor" keeps pixel art sharp. */
+    private final TextureLoader.TextureParameter pixelArt = new TextureLoader.TextureParameter();
+
+    /** Loader settings for the atlas (only there to report when it has loaded). */
+    private final TextureAtlasLoader.TextureAtlasParameter atlasParameter = new TextureAtlasLoader.TextureAtlasParameter();
+
+    /** When each asset still loading was queued (TimeUtils.nanoTime()), by path. */
+    private final ObjectLongMap<String> queuedAt = new ObjectLongMap<>();
+
+    // ------------------ CONSTRUCTOR ------------------
+
+    public Assets() {
+        useAtlas = Gdx.files.internal(SPRITE_ATLAS).exists();
+        if (!useAtlas)
+            Gdx.app.log("Assets", SPRITE_ATLAS + " not found; loading loose sprite textures.");
+
+        pixelArt.minFilter = Texture.TextureFilter.Nearest;
+        pixelArt.magFilter = Texture.TextureFilter.Nearest;
+        pixelArt.loadedCallback = this::onLoaded;
+        atlasParameter.loadedCallback = this::onLoaded;
+    }
+
+    // ------------------ QUEUEING ------------------
+
+    /**
+     * Queues the given frames of a sprite folder (e.g. "player", {"idleFront", ...}).
+     * Nothing is loaded yet; that happens incrementally inside update().
+     */
+    public void queueSprites(String folder, String[] names) {
+        if (useAtlas) {
+            // The atlas holds every folder; AssetManager ignores duplicate requests.
+            queued(SPRITE_ATLAS);
+            manager.load(SPRITE_ATLAS, TextureAtlas.class, atlasParameter);
+            return;
+        }
+        for (String name : names) {
+            String path = loosePath(folder, name);
+            queued(path);
+            manager.load(path, Texture.class, pixelArt);
+        }
+    }
+
+    /** Remembers when an asset was first queued, unless it is already loaded. */
+    private void queued(String path) {
+        if (!manager.isLoaded(path) && !queuedAt.containsKey(path))
+            queuedAt.put(path, TimeUtils.nanoTime());
+    }
+
+    /**
+     * Drops one reference to the frames queued by queueSprites(folder, names).
+     * AssetManager frees a texture once nothing references it anymore
+     * (the shared atlas page stays until every folder using it is unloaded).
+     */
+    public void unloadSprites(String folder, String[] names) {
+        if (useAtlas) {
+            manager.unload(SPRITE_ATLAS);
+            return;
+        }
+        for (String name : names)
+            manager.unload(loosePath(folder, name));
+    }
+
+    // ------------------ LOADING ------------------
+
+    /**
+     * Advances loading for at most budgetMillis milliseconds.
+     * Call once per frame; returns true when everything queued so far is ready.
+     */
+    public boolean update(int budgetMillis) {
+        GameEvents.AssetUpdate event = new GameEvents.AssetUpdate();
+        if (!event.isEnabled()) return manager.update(budgetMillis);
+
+        event.begin();
+        boolean done = manager.update(budgetMillis);
+        event.end();
+        event.progress = manager.getProgress();
+        event.commit();
+        return done;
+    }
+
+    /**
+     * Blocks until the frames of one sprite folder are loaded.
+     * Only for sprites needed right now that were not queued during startup.
+     */
+    public void finishLoadingSprites(String folder, String[] names) {
+        if (useAtlas) {
+            manager.finishLoadingAsset(SPRITE_ATLAS);
+            return;
+        }
+        for (String name : names)
+            manager.finishLoadingAsset(loosePath(folder, name));
+    }
+
+    /** Called by the AssetManager, on the render thread, each time one of our assets is ready. */
+    private void onLoaded(AssetManager manager, String path, Class<?> type) {
+        long queued = queuedAt.remove(path, 0);
+        GameEvents.AssetLoaded event = new GameEvents.AssetLoaded();
+        if (!event.isEnabled()) return;
+
+        event.path = path;
+        event.type = type.getSimpleName();
+        event.sinceQueued = (queued == 0) ? 0 : TimeUtils.nanoTime() - queued;
+        event.bytes = gpuBytes(manager.get(path, type));
+        event.commit();
+    }
+
+    /** Rough GPU memory of a loaded texture or atlas (4 bytes per pixel, no mipmaps). */
+    private static long gpuBytes(Object asset) {
+        if (asset instanceof Texture) {
+            Texture texture = (Texture) asset;
+            return 4L * texture.getWidth() * texture.getHeight();
+        }
+        long bytes = 0;
+        if (asset instanceof TextureAtlas)
+            for (Texture page : ((TextureAtlas) asset).getTextures())
+                bytes += gpuBytes(page);
+        return bytes;
+    }
+
+    /** Fraction of queued assets that are ready, from 0 to 1. */
+    public float getProgress() {
+        return manager.getProgress();
+    }
+
+    // ------------------ LOOKUP ------------------
+
+    /**
+     * Returns the frame "folder/name", e.g. region("player", "idleFront").
+     * The asset must already be loaded (update() returned true).
+     */
+    public TextureRegion region(String folder, String name) {
+        if (useAtlas) {
+            TextureRegion region = manager.get(SPRITE_ATLAS, TextureAtlas.class).findRegion(folder + "/" + name);
+            if (region == null)
+                throw new IllegalArgumentException("Atlas is missing region: " + folder + "/" + name);
+            return region;
+        }
+        return new TextureRegion(manager.get(loosePath(folder, name), Texture.class));
+    }
+
+    /** Path of a loose sprite image, e.g. "assets/player/idleFront.PNG". */
+    private static String loosePath(String folder, String name) {
+        return "assets/" + folder + "/" + name + LOOSE_EXTENSION;
+    }
+
+    // ------------------ CLEANUP ------------------
+
+    /** Unloads and frees every texture the AssetManager loaded. */
+    @Override
+    public void dispose() {
+        manager.dispose();
+    }
+}
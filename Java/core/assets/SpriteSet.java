@@ -0,0 +1,113 @@
+package core.assets;
+
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+
+/**
+ * SpriteSet holds every frame of one 4-direction character:
+ * an idle frame and a looping walk animation per facing direction.
+ *
+ * It is read-only once built, so any number of entities can share one instance.
+ * Frame lookup is plain array indexing: no Animation objects, no enum switches,
+ * no allocation, since it runs for every visible entity every frame.
+ * Get instances from SpriteSetCache instead of building them yourself.
+ */
+public final class SpriteSet {
+
+    // ------------------ DIRECTIONS ------------------
+
+    /** Direction indices used by idleFrame/walkFrame. */
+    public static final int DOWN = 0, UP = 1, LEFT = 2, RIGHT = 3;
+
+    /** Number of facing directions. */
+    public static final int DIRECTIONS = 4;
+
+    /** Time each walk frame lasts (seconds per frame). */
+    private static final float FRAME_DURATION = 0.12f;
+
+    /** Frames per walk cycle. */
+    private static final int WALK_FRAMES = 2;
+
+    /** Frames in a set: one idle frame plus WALK_FRAMES walk frames per direction. */
+    public static final int FRAME_COUNT = DIRECTIONS * (1 + WALK_FRAMES);
+
+    // ------------------ FRAMES ------------------
+
+    /** Name this set was cached under (its sprite folder, e.g. "player"). */
+    private final String key;
+
+    /** Idle frames, indexed by direction. */
+    private final TextureRegion[] idle = new TextureRegion[DIRECTIONS];
+
+    /** Looping walk frames, indexed by [direction][frame]. */
+    private final TextureRegion[][] walk = new TextureRegion[DIRECTIONS][WALK_FRAMES];
+
+    /** Every frame by frame index (see frameIndex()), in constructor order. */
+    private final TextureRegion[] frames;
+
+    /** Estimated GPU memory used by the frames, in bytes (RGBA8888 = 4 bytes/texel). */
+    private final long bytes;
+
+    // ------------------ CONSTRUCTOR ------------------
+
+    /**
+     * Builds a set from 12 regions in this order:
+     * idle down, up, left, right; then two walk frames each for down, up, left, right.
+     */
+    SpriteSet(String key, TextureRegion[] fr) {
+        if (fr.length != FRAME_COUNT)
+            throw new IllegalArgumentException("A sprite set needs " + FRAME_COUNT + " frames, got " + fr.length);
+        this.key = key;
+        this.frames = fr.clone();
+
+        long texels = 0;
+        for (TextureRegion r : fr)
+            texels += (long) r.getRegionWidth() * r.getRegionHeight();
+        this.bytes = texels * 4;
+
+        for (int dir = 0; dir < DIRECTIONS; dir++) {
+            idle[dir] = fr[dir];
+            for (int f = 0; f < WALK_FRAMES; f++)
+                walk[dir][f] = fr[DIRECTIONS + dir * WALK_FRAMES + f];
+        }
+    }
+
+    // ------------------ LOOKUP ------------------
+
+    /** Still frame for a direction (DOWN, UP, LEFT or RIGHT). */
+    public TextureRegion idleFrame(int dir) {
+        return idle[dir];
+    }
+
+    /**
+     * Walk frame for a direction at the given animation time, in seconds.
+     * Each frame lasts FRAME_DURATION seconds and the cycle loops.
+     */
+    public TextureRegion walkFrame(int dir, float stateTime) {
+        return walk[dir][(int) (stateTime / FRAME_DURATION) % WALK_FRAMES];
+    }
+
+    /**
+     * Index of the frame to show, for frame(): the idle frame for a direction, or
+     * its walk frame at the given animation time. Lets the simulation pick frames
+     * as plain numbers, without touching any texture.
+     */
+    public static int frameIndex(int dir, boolean moving, float stateTime) {
+        if (!moving) return dir;
+        return DIRECTIONS + dir * WALK_FRAMES + (int) (stateTime / FRAME_DURATION) % WALK_FRAMES;
+    }
+
+    /** Frame by index (0 to FRAME_COUNT - 1), see frameIndex(). */
+    public TextureRegion frame(int index) {
+        return frames[index];
+    }
+
+    /** Cache key (sprite folder) of this set. */
+    public String getKey() {
+        return key;
+    }
+
+    /** Estimated GPU memory of the frames, in bytes. */
+    public long getBytes() {
+        return bytes;
+    }
+}
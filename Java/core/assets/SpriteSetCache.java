@@ -0,0 +1,154 @@
+package core.assets;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+/**
+ * SpriteSetCache shares SpriteSets between entities, keyed by sprite folder.
+ *
+ * Without it, every character would load its own copy of the same textures:
+ * 500 NPCs x 12 frames = 6,000 textures. With it, memory grows with the number
+ * of different sprite folders, not with the number of entities.
+ *
+ * Rules:
+ *  - acquire() returns the shared set and adds a reference; call release() once
+ *    for every acquire() (usually in the entity's dispose()).
+ *  - A set nobody references stays cached, so respawning is instant.
+ *  - If cached sets use more than the memory budget, the least recently used
+ *    unreferenced sets are evicted and their textures unloaded from Assets.
+ */
+public class SpriteSetCache {
+
+    // ------------------ CONSTANTS ------------------
+
+    /** Default GPU memory budget for cached sprite sets: 64 MB. */
+    public static final long DEFAULT_BUDGET_BYTES = 64L * 1024 * 1024;
+
+    // ------------------ ENTRY ------------------
+
+    /** One cached sprite folder. */
+    private static final class Entry {
+        final String folder;
+        final String[] names;
+        /** Built on first acquire (null while only queued). */
+        SpriteSet set;
+        /** Number of live acquire() calls not yet released. */
+        int refCount;
+
+        Entry(String folder, String[] names) {
+            this.folder = folder;
+            this.names = names;
+        }
+    }
+
+    // ------------------ STATE ------------------
+
+    /** Loads and frees the textures behind each set. */
+    private final Assets assets;
+
+    /** Maximum estimated bytes to keep before evicting unreferenced sets. */
+    private long budgetBytes;
+
+    /** Estimated bytes of every built set currently cached. */
+    private long usedBytes;
+
+    /** Entries in least-recently-used-first order (access-ordered LinkedHashMap). */
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    // ------------------ CONSTRUCTORS ------------------
+
+    public SpriteSetCache(Assets assets) {
+        this(assets, DEFAULT_BUDGET_BYTES);
+    }
+
+    public SpriteSetCache(Assets assets, long budgetBytes) {
+        this.assets = assets;
+        this.budgetBytes = budgetBytes;
+    }
+
+    // ------------------ PRELOAD / ACQUIRE / RELEASE ------------------
+
+    /**
+     * Queues a sprite folder for background loading (see Assets.update).
+     * Call during startup so the first acquire() does not block.
+     */
+    public void preload(String folder, String[] names) {
+        entry(folder, names);
+    }
+
+    /**
+     * Returns the shared SpriteSet for a folder and adds one reference.
+     * Builds it on first use, blocking if its textures are still loading.
+     *
+     * @param names the 12 frame names, in SpriteSet order
+     */
+    public SpriteSet acquire(String folder, String[] names) {
+        Entry e = entry(folder, names);
+        if (e.set == null) {
+            assets.finishLoadingSprites(folder, names);
+            TextureRegion[] fr = new TextureRegion[names.length];
+            for (int i = 0; i < names.length; i++)
+                fr[i] = assets.region(folder, names[i]);
+            e.set = new SpriteSet(folder, fr);
+            usedBytes += e.set.getBytes();
+        }
+        e.refCount++;
+        evictOverBudget();
+        return e.set;
+    }
+
+    /**
+     * Drops one reference taken by acquire(). The set stays cached until memory
+     * is needed; it is then evicted before any more recently used set.
+     */
+    public void release(SpriteSet set) {
+        Entry e = entries.get(set.getKey());
+        if (e == null || e.set != set || e.refCount <= 0)
+            throw new IllegalStateException("Sprite set released more often than acquired: " + set.getKey());
+        e.refCount--;
+        evictOverBudget();
+    }
+
+    /** Finds the entry for a folder, creating it (and queueing its textures) if new. */
+    private Entry entry(String folder, String[] names) {
+        Entry e = entries.get(folder);
+        if (e == null) {
+            e = new Entry(folder, names);
+            entries.put(folder, e);
+            assets.queueSprites(folder, names); // the cache holds one Assets reference per entry
+        }
+        return e;
+    }
+
+    // ------------------ EVICTION ------------------
+
+    /**
+     * Evicts unreferenced sets, least recently used first, until the cache fits
+     * in its budget. Sets still in use are never evicted, even when over budget.
+     */
+    private void evictOverBudget() {
+        Iterator<Entry> it = entries.values().iterator();
+        while (usedBytes > budgetBytes && it.hasNext()) {
+            Entry e = it.next();
+            if (e.refCount > 0 || e.set == null) continue;
+            it.remove();
+            usedBytes -= e.set.getBytes();
+            assets.unloadSprites(e.folder, e.names);
+            Gdx.app.debug("SpriteSetCache", "Evicted " + e.folder);
+        }
+    }
+
+    /** Changes the memory budget; evicts immediately if the cache is now over it. */
+    public void setBudgetBytes(long budgetBytes) {
+        this.budgetBytes = budgetBytes;
+        evictOverBudget();
+    }
+
+    /** Estimated bytes of every built set still cached (referenced or not). */
+    public long getUsedBytes() {
+        return usedBytes;
+    }
+}
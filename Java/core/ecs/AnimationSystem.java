@@ -0,0 +1,21 @@
+package core.ecs;
+
+/**
+ * AnimationSystem advances every entity's animation clock.
+ * Simulation.capture() later turns stateTime into a key frame (SpriteSet.frameIndex()).
+ */
+public final class AnimationSystem implements EntitySystem {
+
+    /** Adds delta seconds to every entity's animation time. */
+    public void update(EntityWorld world, float delta) {
+        update(world, 0, world.getCount(), delta);
+    }
+
+    /** Adds delta seconds to the animation time of entities from..to-1. */
+    @Override
+    public void update(EntityWorld world, int from, int to, float delta) {
+        float[] stateTime = world.stateTime;
+        for (int i = from; i < to; i++)
+            stateTime[i] += delta;
+    }
+}
@@ -0,0 +1,27 @@
+package core.ecs;
+
+/**
+ * EntitySystem is a system that updates entities one by one, so SystemScheduler
+ * can split its work into ranges of entities and run them on several cores.
+ *
+ * Rules for update(world, from, to, delta), which may run on any thread,
+ * at the same time as other ranges of the same system:
+ *  - only write entities from..to-1, and only their own array slots
+ *  - only read data no system in the same stage writes (see SystemScheduler)
+ *  - don't touch shared structures such as world.spatial; do that in finish()
+ *
+ * Following them, an entity's result depends only on its own data, so a tick
+ * gives the same result however the entities are split and on however many threads.
+ */
+public interface EntitySystem {
+
+    /** Updates entities with dense index from (inclusive) to "to" (exclusive) by delta seconds. */
+    void update(EntityWorld world, int from, int to, float delta);
+
+    /**
+     * Runs once per tick on the scheduling thread after every range of update() is done,
+     * for work on shared structures (e.g. the spatial hash). Does nothing by default.
+     */
+    default void finish(EntityWorld world, float delta) {
+    }
+}
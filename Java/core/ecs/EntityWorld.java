@@ -0,0 +1,226 @@
+package core.ecs;
+
+import core.assets.SpriteSet;
+import core.perf.GameEvents;
+
+import java.util.Arrays;
+
+/**
+ * EntityWorld stores every entity's data in plain parallel arrays
+ * ("structure of arrays") instead of one object per entity.
+ *
+ * Why: systems walk one array at a time from index 0 to count-1, which is
+ * cache-friendly and involves no per-entity method calls, so a tick over
+ * 100,000 entities stays cheap.
+ *
+ * Entities:
+ *  - An entity is identified by a stable int id returned from spawn().
+ *  - Its data lives at a dense index 0..count-1 (look it up with indexOf(id)).
+ *    Destroying an entity moves the last entity into the freed slot, so
+ *    indices may change; ids never do.
+ *
+ * Systems read and write the public arrays directly, only for indices below getCount().
+ *
+ * Every entity is also kept in a SpatialHash (by id) for "what's near here" queries.
+ * Code that changes x/y must call spatial.move(id, x, y) afterwards, as MovementSystem does.
+ */
+public final class EntityWorld {
+
+    // ------------------ FLAGS ------------------
+
+    /** Entity is driven by the keyboard (see InputSystem). */
+    public static final int CONTROLLED = 1;
+
+    /** Entity moved during the last tick (walk animation instead of idle). */
+    public static final int MOVING = 1 << 1;
+
+    // ------------------ SPATIAL INDEX ------------------
+
+    /** Cell size of the spatial hash, in world units (a few character widths). */
+    public static final float SPATIAL_CELL_SIZE = 64f;
+
+    /** Every entity's position, bucketed by area, for queries that only visit nearby entities. */
+    public final SpatialHash spatial;
+
+    // ------------------ COMPONENT ARRAYS (indexed by dense index) ------------------
+
+    /** Position now, and before the latest tick (for render interpolation). */
+    public float[] x, y, prevX, prevY;
+
+    /** Desired movement direction; normalized by MovementSystem. */
+    public float[] vx, vy;
+
+    /** Movement speed in world units per second. */
+    public float[] speed;
+
+    /** Seconds since the entity's animation started. */
+    public float[] stateTime;
+
+    /** Facing direction (SpriteSet.DOWN/UP/LEFT/RIGHT). */
+    public byte[] facing;
+
+    /** Bit set of CONTROLLED, MOVING, ... */
+    public int[] flags;
+
+    /** Frames to draw (shared between entities); null for entities that are never drawn. */
+    public SpriteSet[] sprite;
+
+    // ------------------ ID BOOKKEEPING ------------------
+
+    /** Dense index -> entity id. */
+    private int[] ids;
+
+    /** Entity id -> dense index, or -1 if the id is not alive. */
+    private int[] indexOfId;
+
+    /** Ids freed by destroy(), reused by spawn() (stack, freeCount entries). */
+    private int[] freeIds;
+    private int freeCount;
+
+    /** Next never-used id. */
+    private int nextId;
+
+    /** Number of live entities (valid indices are 0..count-1). */
+    private int count;
+
+    // ------------------ CONSTRUCTOR ------------------
+
+    /** @param initialCapacity entities to reserve room for; arrays grow when exceeded */
+    public EntityWorld(int initialCapacity) {
+        int cap = Math.max(16, initialCapacity);
+        x = new float[cap];  y = new float[cap];
+        prevX = new float[cap]; prevY = new float[cap];
+        vx = new float[cap]; vy = new float[cap];
+        speed = new float[cap];
+        stateTime = new float[cap];
+        facing = new byte[cap];
+        flags = new int[cap];
+        sprite = new SpriteSet[cap];
+        ids = new int[cap];
+        indexOfId = new int[cap];
+        Arrays.fill(indexOfId, -1);
+        freeIds = new int[cap];
+        spatial = new SpatialHash(SPATIAL_CELL_SIZE, cap);
+    }
+
+    // ------------------ SPAWN / DESTROY ------------------
+
+    /**
+     * Adds an entity standing still, facing down, and returns its id.
+     *
+     * @param sprite frames to draw, or null for an invisible/headless entity
+     */
+    public int spawn(float startX, float startY, float speed, SpriteSet sprite) {
+        int id = (freeCount > 0) ? freeIds[--freeCount] : nextId++;
+        ensureCapacity(count + 1, id + 1);
+
+        int i = count++;
+        ids[i] = id;
+        indexOfId[id] = i;
+
+        x[i] = prevX[i] = startX;
+        y[i] = prevY[i] = startY;
+        vx[i] = vy[i] = 0f;
+        this.speed[i] = speed;
+        stateTime[i] = 0f;
+        facing[i] = SpriteSet.DOWN;
+        flags[i] = 0;
+        this.sprite[i] = sprite;
+        spatial.insert(id, startX, startY);
+
+        // Flight recorder event; allocation-free unless a recording wants it (see GameEvents).
+        GameEvents.EntitySpawn event = new GameEvents.EntitySpawn();
+        if (event.isEnabled()) {
+            event.id = id;
+            event.x = startX;
+            event.y = startY;
+            event.commit();
+        }
+        return id;
+    }
+
+    /** Removes an entity; the last entity is moved into its slot to keep arrays dense. */
+    public void destroy(int id) {
+        int i = indexOf(id);
+        if (i < 0) throw new IllegalArgumentException("No such entity: " + id);
+
+        int last = --count;
+        if (i != last) {
+            x[i] = x[last];  y[i] = y[last];
+            prevX[i] = prevX[last]; prevY[i] = prevY[last];
+            vx[i] = vx[last]; vy[i] = vy[last];
+            speed[i] = speed[last];
+            stateTime[i] = stateTime[last];
+            facing[i] = facing[last];
+            flags[i] = flags[last];
+            sprite[i] = sprite[last];
+            ids[i] = ids[last];
+            indexOfId[ids[i]] = i;
+        }
+        sprite[last] = null; // don't keep the shared set reachable from a dead slot
+        spatial.remove(id);
+        indexOfId[id] = -1;
+        freeIds[freeCount++] = id;
+
+        GameEvents.EntityDestroy event = new GameEvents.EntityDestroy();
+        if (event.isEnabled()) {
+            event.id = id;
+            event.commit();
+        }
+    }
+
+    /** Grows every array (by doubling) so it fits the given entity count and id. */
+    private void ensureCapacity(int entities, int idLimit) {
+        if (entities > x.length) {
+            int cap = Math.max(entities, x.length * 2);
+            x = Arrays.copyOf(x, cap);  y = Arrays.copyOf(y, cap);
+            prevX = Arrays.copyOf(prevX, cap); prevY = Arrays.copyOf(prevY, cap);
+            vx = Arrays.copyOf(vx, cap); vy = Arrays.copyOf(vy, cap);
+            speed = Arrays.copyOf(speed, cap);
+            stateTime = Arrays.copyOf(stateTime, cap);
+            facing = Arrays.copyOf(facing, cap);
+            flags = Arrays.copyOf(flags, cap);
+            sprite = Arrays.copyOf(sprite, cap);
+            ids = Arrays.copyOf(ids, cap);
+            freeIds = Arrays.copyOf(freeIds, cap);
+        }
+        if (idLimit > indexOfId.length) {
+            int old = indexOfId.length;
+            indexOfId = Arrays.copyOf(indexOfId, Math.max(idLimit, old * 2));
+            Arrays.fill(indexOfId, old, indexOfId.length, -1);
+        }
+    }
+
+    // ------------------ LOOKUP ------------------
+
+    /** Dense array index of an entity, or -1 if it doesn't exist. */
+    public int indexOf(int id) {
+        return (id >= 0 && id < indexOfId.length) ? indexOfId[id] : -1;
+    }
+
+    /** Entity id stored at a dense index. */
+    public int idAt(int index) {
+        return ids[index];
+    }
+
+    /** Number of live entities; systems loop over indices 0..getCount()-1. */
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * Hash of every entity's id, position, facing and flags, in index order.
+     * Two runs of a deterministic simulation end with the same checksum.
+     */
+    public long checksum() {
+        long h = count;
+        for (int i = 0; i < count; i++) {
+            h = h * 31 + ids[i];
+            h = h * 31 + Float.floatToIntBits(x[i]);
+            h = h * 31 + Float.floatToIntBits(y[i]);
+            h = h * 31 + facing[i];
+            h = h * 31 + flags[i];
+        }
+        return h;
+    }
+}
@@ -0,0 +1,64 @@
+package core.ecs;
+
+import core.input.Action;
+import core.input.InputState;
+
+/**
+ * InputSystem turns the held movement actions into a direction for every
+ * CONTROLLED entity.
+ *
+ * It reads the InputState snapshot (sampled once per tick), never the keyboard.
+ * The raw vector is written to vx/vy; MovementSystem normalizes it.
+ */
+public final class InputSystem implements EntitySystem {
+
+    /** Input read by update(world, from, to, delta); see setInput(). */
+    private InputState input;
+
+    /** Sets the input that the EntitySystem update reads (the tick's actions). */
+    public void setInput(InputState input) {
+        this.input = input;
+    }
+
+    /** Writes the direction from this tick's input to all controlled entities. */
+    public void update(EntityWorld world, InputState input) {
+        setInput(input);
+        update(world, 0, world.getCount(), 0f);
+    }
+
+    /** Writes the direction from the input set with setInput() to controlled entities from..to-1. */
+    @Override
+    public void update(EntityWorld world, int from, int to, float delta) {
+        float dx = 0, dy = 0; // Direction from the actions held this tick.
+
+        boolean up    = input.isDown(Action.MOVE_UP);
+        boolean down  = input.isDown(Action.MOVE_DOWN);
+        boolean left  = input.isDown(Action.MOVE_LEFT);
+        boolean right = input.isDown(Action.MOVE_RIGHT);
+
+        //Running Velocity
+        boolean run = input.isDown(Action.RUN);
+
+        // Convert key presses into a direction vector.
+        if (up)    dy += 1;
+        if (down)  dy -= 1;
+        if (left)  dx -= 1;
+        if (right) dx += 1;
+
+        if (run) {
+            if (up)    dy += 10;
+            if (down)  dy -= 10;
+            if (left)  dx -= 10;
+            if (right) dx += 10;
+        }
+
+        // Apply to every keyboard-driven entity.
+        int[] flags = world.flags;
+        float[] vx = world.vx, vy = world.vy;
+        for (int i = from; i < to; i++) {
+            if ((flags[i] & EntityWorld.CONTROLLED) == 0) continue;
+            vx[i] = dx;
+            vy[i] = dy;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package core.ecs;
+
+import core.assets.SpriteSet;
+import core.map.CollisionMap;
+
+/**
+ * MovementSystem moves every entity along its vx/vy direction.
+ *
+ * Per entity and tick:
+ *  - remember the old position (for render interpolation)
+ *  - turn to face the direction of travel
+ *  - normalize the direction so diagonal movement isn't faster
+ *  - move by direction * speed * delta, stopping at solid tiles (if a CollisionMap is set),
+ *    and set/clear the MOVING flag
+ *  - tell the world's SpatialHash about the new position (in finish(), on one thread,
+ *    since the hash is shared)
+ */
+public final class MovementSystem implements EntitySystem {
+
+    // ------------------ HITBOX ------------------
+
+    /**
+     * Box that collides with solid tiles: the character's feet, relative to the
+     * entity position (the bottom-left corner of its sprite). Whole numbers keep
+     * positions exact when an entity is stopped against a wall.
+     */
+    public static final float HITBOX_OFFSET_X = 10f;
+    public static final float HITBOX_WIDTH = 14f;
+    public static final float HITBOX_HEIGHT = 8f;
+
+    /** Solid tiles to stop at, or null to move freely. */
+    private CollisionMap collision;
+
+    /** Sets the tiles entities collide with (null turns collision off). */
+    public void setCollisionMap(CollisionMap collision) {
+        this.collision = collision;
+    }
+
+    /** Advances all entities by one fixed step of delta seconds. */
+    public void update(EntityWorld world, float delta) {
+        update(world, 0, world.getCount(), delta);
+        finish(world, delta);
+    }
+
+    /** Moves entities from..to-1; the spatial hash is updated afterwards by finish(). */
+    @Override
+    public void update(EntityWorld world, int from, int to, float delta) {
+        float[] x = world.x, y = world.y, prevX = world.prevX, prevY = world.prevY;
+        float[] vx = world.vx, vy = world.vy, speed = world.speed;
+        byte[] facing = world.facing;
+        int[] flags = world.flags;
+
+        for (int i = from; i < to; i++) {
+            // Remember where this step started.
+            prevX[i] = x[i];
+            prevY[i] = y[i];
+
+            float dx = vx[i], dy = vy[i];
+
+            // Determine the direction the entity is facing (used for selecting animation).
+            if      (dy > 0) facing[i] = SpriteSet.UP;
+            else if (dy < 0) facing[i] = SpriteSet.DOWN;
+            else if (dx > 0) facing[i] = SpriteSet.RIGHT;
+            else if (dx < 0) facing[i] = SpriteSet.LEFT;
+
+            // Normalize diagonal movement so diagonal speed isn't faster.
+            float len = (float) Math.sqrt(dx * dx + dy * dy);
+            if (len > 0f) {
+                dx /= len;
+                dy /= len;
+                vx[i] = dx;
+                vy[i] = dy;
+
+                float moveX = dx * speed[i] * delta;
+                float moveY = dy * speed[i] * delta;
+                if (collision == null) {
+                    x[i] += moveX;
+                    y[i] += moveY;
+                } else {
+                    // One axis at a time, so entities slide along walls instead of sticking.
+                    float left = collision.moveX(x[i] + HITBOX_OFFSET_X, y[i], HITBOX_WIDTH, HITBOX_HEIGHT, moveX);
+                    y[i] = collision.moveY(left, y[i], HITBOX_WIDTH, HITBOX_HEIGHT, moveY);
+                    x[i] = left - HITBOX_OFFSET_X;
+                }
+                flags[i] |= EntityWorld.MOVING;
+            } else {
+                flags[i] &= ~EntityWorld.MOVING;
+            }
+        }
+    }
+
+    /** Moves every entity that moved this tick to its new place in the spatial hash, in index order. */
+    @Override
+    public void finish(EntityWorld world, float delta) {
+        int n = world.getCount();
+        float[] x = world.x, y = world.y;
+        int[] flags = world.flags;
+        for (int i = 0; i < n; i++)
+            if ((flags[i] & EntityWorld.MOVING) != 0)
+                world.spatial.move(world.idAt(i), x[i], y[i]);
+    }
+}
@@ -0,0 +1,87 @@
+package core.ecs;
+
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import core.RenderSnapshot;
+import core.render.RenderQueue;
+
+/**
+ * RenderSystem queues every entity of a RenderSnapshot for drawing.
+ *
+ * The simulation already picked each entity's frame (idle or walk, for its
+ * facing direction) when it captured the snapshot. This scales that frame to
+ * CHARACTER_HEIGHT world units, places it at a position blended between the
+ * last two ticks (see FixedStepLoop.getAlpha()), and submits it to a
+ * RenderQueue on CHARACTER_LAYER, which draws characters back to front by Y.
+ *
+ * Entities outside the camera's view are skipped before their frame is even
+ * looked up. The snapshot itself already holds only entities near the view
+ * (Simulation.capture() asks the spatial hash), so this is the exact check.
+ *
+ * It only reads the snapshot, never the EntityWorld, so it can run on the
+ * render thread while the simulation thread runs the next tick.
+ */
+public final class RenderSystem {
+
+    /** Desired height of character sprites in world units (controls on-screen size). */
+    public static final float CHARACTER_HEIGHT = 32f;
+
+    /** RenderQueue layer of characters (layer 0 stays free for things under them, like shadows). */
+    public static final int CHARACTER_LAYER = 1;
+
+    /** Widest a character sprite can be, in world units (for culling before the frame is known). */
+    private static final float MAX_CHARACTER_WIDTH = 2 * CHARACTER_HEIGHT;
+
+    /** Entities queued and skipped by the last render(). */
+    private int drawn, culled;
+
+    /**
+     * Queues the entities of the snapshot that the camera sees; they appear when the queue is drawn.
+     *
+     * @param alpha interpolation factor between previous (0) and current (1) positions
+     */
+    public void render(RenderSnapshot snapshot, RenderQueue queue, float alpha, OrthographicCamera camera) {
+        int n = snapshot.count;
+        float[] x = snapshot.x, y = snapshot.y, prevX = snapshot.prevX, prevY = snapshot.prevY;
+        byte[] frameIndex = snapshot.frame;
+
+        // Visible world area; a sprite is drawn up and right of its position.
+        float halfW = camera.viewportWidth * camera.zoom / 2f, halfH = camera.viewportHeight * camera.zoom / 2f;
+        float left = camera.position.x - halfW - MAX_CHARACTER_WIDTH, right = camera.position.x + halfW;
+        float bottom = camera.position.y - halfH - CHARACTER_HEIGHT, top = camera.position.y + halfH;
+
+        drawn = culled = 0;
+        for (int i = 0; i < n; i++) {
+            // Blend between the last two simulated positions.
+            float drawX = prevX[i] + (x[i] - prevX[i]) * alpha;
+            float drawY = prevY[i] + (y[i] - prevY[i]) * alpha;
+            if (drawX < left || drawX > right || drawY < bottom || drawY > top) {
+                culled++;
+                continue;
+            }
+
+            TextureRegion frame = snapshot.sprite[i].frame(frameIndex[i]);
+
+            // Scale so the sprite's height = CHARACTER_HEIGHT, keeping its aspect ratio.
+            float srcW = frame.getRegionWidth();
+            float srcH = frame.getRegionHeight();
+            float scale = CHARACTER_HEIGHT / srcH;
+            float drawW = Math.round(srcW * scale);
+            float drawH = Math.round(srcH * scale);
+
+            // Draw at integer pixel positions to avoid blurry rendering.
+            queue.submit(CHARACTER_LAYER, frame, Math.round(drawX), Math.round(drawY), drawW, drawH);
+            drawn++;
+        }
+    }
+
+    /** Entities queued by the last render(). */
+    public int getDrawnCount() {
+        return drawn;
+    }
+
+    /** Entities of the last snapshot skipped as off-screen. */
+    public int getCulledCount() {
+        return culled;
+    }
+}
@@ -0,0 +1,210 @@
+package core.ecs;
+
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.utils.IntArray;
+
+import java.util.Arrays;
+
+/**
+ * SpatialHash finds entities near a point or inside an area without looking at
+ * every entity.
+ *
+ * The world is cut into square cells of cellSize world units. Each cell's entities
+ * are kept in a linked list (stored in plain int arrays, indexed by entity id), and
+ * cells are found through a hash table of buckets, so the map can be any size.
+ *
+ *  - insert/move/remove are O(1); move() does nothing while an entity stays in its cell
+ *  - queries only visit the cells overlapping the searched area, so their cost
+ *    depends on how many entities are nearby, not on the total count
+ *  - queries append entity ids to a caller-provided IntArray and don't allocate
+ *    (the IntArray only grows if it is too small)
+ *
+ * Entities are stored as points (their x/y position). To find sprites overlapping
+ * an area, grow the area by the sprite size before querying.
+ */
+public final class SpatialHash {
+
+    /** Marks the end of a bucket list / an id that isn't in the hash. */
+    private static final int NONE = -1;
+
+    /** Width and height of one cell, in world units. */
+    private final float cellSize;
+
+    /** First entity id of each bucket's list, or NONE. Length is a power of two. */
+    private int[] head;
+
+    /** Per entity id: next/previous id in the same bucket, or NONE. */
+    private int[] next, prev;
+
+    /** Per entity id: cell coordinates, and position as of the last insert/move. */
+    private int[] cellX, cellY;
+    private float[] px, py;
+
+    /** Per entity id: true while the id is in the hash. */
+    private boolean[] present;
+
+    /** Number of entities in the hash. */
+    private int size;
+
+    // ------------------ CONSTRUCTOR ------------------
+
+    /**
+     * @param cellSize       cell width/height; about the size of a typical query works best
+     * @param initialBuckets buckets to start with (rounded up to a power of two); grows with the entity count
+     */
+    public SpatialHash(float cellSize, int initialBuckets) {
+        this.cellSize = cellSize;
+        head = new int[MathUtils.nextPowerOfTwo(Math.max(16, initialBuckets))];
+        Arrays.fill(head, NONE);
+        ensureIdCapacity(64);
+    }
+
+    // ------------------ UPDATES ------------------
+
+    /** Adds an entity at the given position. */
+    public void insert(int id, float x, float y) {
+        ensureIdCapacity(id + 1);
+        if (present[id]) throw new IllegalArgumentException("Entity already in spatial hash: " + id);
+        present[id] = true;
+        px[id] = x;
+        py[id] = y;
+        cellX[id] = cell(x);
+        cellY[id] = cell(y);
+        link(id);
+        if (++size > head.length * 2) rehash(head.length * 4);
+    }
+
+    /** Updates an entity's position, relinking it only if it changed cells. */
+    public void move(int id, float x, float y) {
+        px[id] = x;
+        py[id] = y;
+        int cx = cell(x), cy = cell(y);
+        if (cx == cellX[id] && cy == cellY[id]) return;
+        unlink(id);
+        cellX[id] = cx;
+        cellY[id] = cy;
+        link(id);
+    }
+
+    /** Removes an entity. */
+    public void remove(int id) {
+        if (id >= present.length || !present[id]) throw new IllegalArgumentException("Entity not in spatial hash: " + id);
+        unlink(id);
+        present[id] = false;
+        size--;
+    }
+
+    // ------------------ QUERIES ------------------
+
+    /**
+     * Appends the ids of all entities with minX <= x <= maxX and minY <= y <= maxY to "out".
+     * Returns the number of ids appended.
+     */
+    public int queryRect(float minX, float minY, float maxX, float maxY, IntArray out) {
+        int before = out.size;
+        int cx0 = cell(minX), cx1 = cell(maxX);
+        int cy0 = cell(minY), cy1 = cell(maxY);
+
+        // A huge area covers more cells than there are buckets: cheaper to scan every bucket once.
+        if ((long) (cx1 - cx0 + 1) * (cy1 - cy0 + 1) > head.length) {
+            for (int b = 0; b < head.length; b++)
+                for (int id = head[b]; id != NONE; id = next[id])
+                    if (px[id] >= minX && px[id] <= maxX && py[id] >= minY && py[id] <= maxY) out.add(id);
+            return out.size - before;
+        }
+
+        for (int cy = cy0; cy <= cy1; cy++) {
+            for (int cx = cx0; cx <= cx1; cx++) {
+                // Other cells can share this bucket; only take entities of this cell so none is reported twice.
+                for (int id = head[bucket(cx, cy)]; id != NONE; id = next[id]) {
+                    if (cellX[id] != cx || cellY[id] != cy) continue;
+                    if (px[id] >= minX && px[id] <= maxX && py[id] >= minY && py[id] <= maxY) out.add(id);
+                }
+            }
+        }
+        return out.size - before;
+    }
+
+    /**
+     * Appends the ids of all entities within "radius" of (x, y) to "out".
+     * Returns the number of ids appended.
+     */
+    public int queryRadius(float x, float y, float radius, IntArray out) {
+        int start = out.size;
+        queryRect(x - radius, y - radius, x + radius, y + radius, out);
+
+        // Keep only the hits inside the circle (compacting in place).
+        float r2 = radius * radius;
+        int kept = start;
+        for (int i = start; i < out.size; i++) {
+            int id = out.items[i];
+            float dx = px[id] - x, dy = py[id] - y;
+            if (dx * dx + dy * dy <= r2) out.items[kept++] = id;
+        }
+        out.size = kept;
+        return kept - start;
+    }
+
+    /** Number of entities in the hash. */
+    public int size() {
+        return size;
+    }
+
+    /** True if the entity is in the hash. */
+    public boolean contains(int id) {
+        return id >= 0 && id < present.length && present[id];
+    }
+
+    // ------------------ INTERNALS ------------------
+
+    private int cell(float coordinate) {
+        return MathUtils.floor(coordinate / cellSize);
+    }
+
+    private int bucket(int cx, int cy) {
+        int h = cx * 0x9E3779B1 ^ cy * 0x85EBCA77;
+        return (h ^ (h >>> 15)) & (head.length - 1);
+    }
+
+    /** Pushes an entity onto the front of its cell's bucket list. */
+    private void link(int id) {
+        int b = bucket(cellX[id], cellY[id]);
+        int first = head[b];
+        next[id] = first;
+        prev[id] = NONE;
+        if (first != NONE) prev[first] = id;
+        head[b] = id;
+    }
+
+    private void unlink(int id) {
+        int p = prev[id], n = next[id];
+        if (p != NONE) next[p] = n;
+        else head[bucket(cellX[id], cellY[id])] = n;
+        if (n != NONE) prev[n] = p;
+    }
+
+    /** Switches to more buckets so lists stay short as the entity count grows. */
+    private void rehash(int buckets) {
+        head = new int[buckets];
+        Arrays.fill(head, NONE);
+        for (int id = 0; id < present.length; id++)
+            if (present[id]) link(id);
+    }
+
+    /** Grows the per-id arrays (by doubling) to fit ids below idLimit. */
+    private void ensureIdCapacity(int idLimit) {
+        if (present != null && idLimit <= present.length) return;
+        int cap = (present == null) ? idLimit : Math.max(idLimit, present.length * 2);
+        if (present == null) {
+            next = new int[cap]; prev = new int[cap];
+            cellX = new int[cap]; cellY = new int[cap];
+            px = new float[cap]; py = new float[cap];
+            present = new boolean[cap];
+            return;
+        }
+        next = Arrays.copyOf(next, cap); prev = Arrays.copyOf(prev, cap);
+        cellX = Arrays.copyOf(cellX, cap); cellY = Arrays.copyOf(cellY, cap);
+        px = Arrays.copyOf(px, cap); py = Arrays.copyOf(py, cap);
+        present = Arrays.copyOf(present, cap);
+    }
+}
@@ -0,0 +1,231 @@
+package core.ecs;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * SystemScheduler runs a tick's EntitySystems on several cores.
+ *
+ * Systems are added with the systems they depend on (e.g. movement after input,
+ * because input writes the direction movement reads). From that graph the
+ * scheduler builds stages: a system goes in the first stage after all of its
+ * dependencies. Each tick, stage by stage:
+ *  1) every system of the stage is split into ranges of at least
+ *     MIN_ENTITIES_PER_JOB entities, and all ranges run in parallel on a
+ *     ForkJoinPool (fork-join: the stage waits until every range is done)
+ *  2) then finish() of each of its systems runs on the calling thread, in the
+ *     order they were added
+ *
+ * Deterministic: ranges only change their own entities (see EntitySystem), and
+ * everything shared happens in finish() in a fixed order, so the result is the
+ * same for any number of threads, including the single-threaded fallback.
+ *
+ * With few entities (e.g. in normal play) everything runs on the calling thread:
+ * handing a few hundred entities to other cores costs more than it saves, and
+ * that path doesn't allocate. Parallel stages cost the JDK a few small objects
+ * for the hand-off.
+ */
+public final class SystemScheduler implements Disposable {
+
+    // ------------------ TUNING ------------------
+
+    /** Fewest entities worth a job of their own. */
+    public static final int MIN_ENTITIES_PER_JOB = 4096;
+
+    /** Jobs per thread a system may be split into (a little more than 1 evens out uneven ranges). */
+    private static final int JOBS_PER_THREAD = 2;
+
+    // ------------------ SYSTEMS ------------------
+
+    /** A system and the systems it must run after. */
+    private static final class Node {
+        final EntitySystem system;
+        final EntitySystem[] dependsOn;
+        int stage = -1;
+
+        Node(EntitySystem system, EntitySystem[] dependsOn) {
+            this.system = system;
+            this.dependsOn = dependsOn;
+        }
+    }
+
+    /** Systems in the order they were added. */
+    private final Array<Node> nodes = new Array<>();
+
+    /** Systems by stage, each stage in the order they were added; rebuilt after add(). */
+    private final Array<Array<EntitySystem>> stages = new Array<>();
+    private boolean stagesDirty;
+
+    // ------------------ THREADS ------------------
+
+    /** Worker threads, or null when running single-threaded. */
+    private final ForkJoinPool pool;
+
+    /** Threads that run jobs (including the pool's), for deciding how finely to split. */
+    private final int threads;
+
+    /** Reusable jobs: one range of one system. */
+    private final Array<RangeJob> jobs = new Array<>(false, 16);
+    private int jobCount;
+
+    /** True if split() gave some system of the current stage more than one range. */
+    private boolean stageSplit;
+
+    /** Reusable root task forking a stage's jobs inside the pool. */
+    private final StageTask stageTask = new StageTask();
+
+    // ------------------ CONSTRUCTOR ------------------
+
+    /** @param threads worker threads to use; 1 runs everything on the calling thread */
+    public SystemScheduler(int threads) {
+        this.threads = Math.max(1, threads);
+        this.pool = (this.threads == 1) ? null
+                : new ForkJoinPool(this.threads, SystemScheduler::newWorker, null, false);
+    }
+
+    private static ForkJoinWorkerThread newWorker(ForkJoinPool pool) {
+        ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+        thread.setName("system-worker-" + thread.getPoolIndex());
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    // ------------------ SETUP ------------------
+
+    /**
+     * Adds a system that runs after every system in dependsOn (which must have been added already).
+     * Systems without a dependency between them may run at the same time.
+     */
+    public void add(EntitySystem system, EntitySystem... dependsOn) {
+        for (EntitySystem dependency : dependsOn)
+            if (find(dependency) == null)
+                throw new IllegalArgumentException("Add " + dependency.getClass().getSimpleName() + " before the systems that depend on it");
+        if (find(system) != null)
+            throw new IllegalArgumentException(system.getClass().getSimpleName() + " was already added");
+        nodes.add(new Node(system, dependsOn));
+        stagesDirty = true;
+    }
+
+    /** Number of stages the systems run in (systems in one stage run side by side). */
+    public int getStageCount() {
+        buildStages();
+        return stages.size;
+    }
+
+    /** Threads running jobs. */
+    public int getThreads() {
+        return threads;
+    }
+
+    private Node find(EntitySystem system) {
+        for (int i = 0; i < nodes.size; i++)
+            if (nodes.get(i).system == system) return nodes.get(i);
+        return null;
+    }
+
+    /** Puts every system in the stage after its latest dependency. */
+    private void buildStages() {
+        if (!stagesDirty) return;
+        stages.clear();
+        // Dependencies are always added first, so one pass in order sees them staged.
+        for (int i = 0; i < nodes.size; i++) {
+            Node node = nodes.get(i);
+            node.stage = 0;
+            for (EntitySystem dependency : node.dependsOn)
+                node.stage = Math.max(node.stage, find(dependency).stage + 1);
+            while (stages.size <= node.stage) stages.add(new Array<>(false, 4));
+            stages.get(node.stage).add(node.system);
+        }
+        stagesDirty = false;
+    }
+
+    // ------------------ PER TICK ------------------
+
+    /** Runs every system once over all entities, stage by stage. */
+    public void run(EntityWorld world, float delta) {
+        buildStages();
+        int n = world.getCount();
+        for (int s = 0; s < stages.size; s++) {
+            Array<EntitySystem> stage = stages.get(s);
+
+            // 1) Split each system into ranges; run them in parallel only if some system was split.
+            //    Otherwise (few entities) the stage's systems run one after the other right here:
+            //    handing whole small systems to the pool would cost more and allocate.
+            jobCount = 0;
+            stageSplit = false;
+            for (int i = 0; i < stage.size; i++)
+                split(stage.get(i), world, n, delta);
+
+            if (!stageSplit) {
+                for (int j = 0; j < jobCount; j++) jobs.get(j).compute();
+            } else {
+                stageTask.reinitialize();
+                pool.invoke(stageTask);
+            }
+
+            // 2) Shared-state work, in a fixed order.
+            for (int i = 0; i < stage.size; i++)
+                stage.get(i).finish(world, delta);
+        }
+    }
+
+    /** Queues one system's ranges as jobs. */
+    private void split(EntitySystem system, EntityWorld world, int n, float delta) {
+        int parts = Math.max(1, Math.min(threads * JOBS_PER_THREAD, n / MIN_ENTITIES_PER_JOB));
+        if (pool == null) parts = 1;
+        if (parts > 1) stageSplit = true;
+        for (int p = 0; p < parts; p++) {
+            if (jobCount == jobs.size) jobs.add(new RangeJob());
+            RangeJob job = jobs.get(jobCount++);
+            job.system = system;
+            job.world = world;
+            job.from = (int) ((long) n * p / parts);
+            job.to = (int) ((long) n * (p + 1) / parts);
+            job.delta = delta;
+        }
+    }
+
+    // ------------------ JOBS ------------------
+
+    /** One system over entities from..to-1. */
+    @SuppressWarnings("serial") // Never serialized (ForkJoinTask is Serializable).
+    private static final class RangeJob extends RecursiveAction {
+        EntitySystem system;
+        EntityWorld world;
+        int from, to;
+        float delta;
+
+        @Override
+        protected void compute() {
+            system.update(world, from, to, delta);
+        }
+    }
+
+    /** Forks every job of the stage but the first, runs that one itself, then waits for the rest. */
+    @SuppressWarnings("serial") // Never serialized.
+    private final class StageTask extends RecursiveAction {
+        @Override
+        protected void compute() {
+            for (int j = 1; j < jobCount; j++) {
+                RangeJob job = jobs.get(j);
+                job.reinitialize();
+                job.fork();
+            }
+            jobs.get(0).compute();
+            for (int j = 1; j < jobCount; j++)
+                jobs.get(j).join();
+        }
+    }
+
+    // ------------------ CLEANUP ------------------
+
+    /** Stops the worker threads. */
+    @Override
+    public void dispose() {
+        if (pool != null) pool.shutdown();
+    }
+}
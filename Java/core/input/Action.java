@@ -0,0 +1,20 @@
+package core.input;
+
+/**
+ * Action is something the player can do, independent of which key does it.
+ *
+ * Keys are mapped to actions by InputBindings; game code asks InputState
+ * about actions, never about keys, so controls can be rebound freely.
+ */
+public enum Action {
+    MOVE_UP,
+    MOVE_DOWN,
+    MOVE_LEFT,
+    MOVE_RIGHT,
+    RUN;
+
+    /** This action's bit in an InputState bit set. */
+    public int bit() {
+        return 1 << ordinal();
+    }
+}
@@ -0,0 +1,84 @@
+package core.input;
+
+import com.badlogic.gdx.Input;
+import com.badlogic.gdx.Input.Keys;
+import com.badlogic.gdx.utils.IntArray;
+
+/**
+ * InputBindings maps keys to Actions. A key can trigger several actions and an
+ * action can have several keys (e.g. W and UP both mean MOVE_UP).
+ *
+ * Bindings can be changed at any time with bind()/unbind()/clear(); the next
+ * InputState.poll() uses the new mapping.
+ */
+public final class InputBindings {
+
+    /** Per key code: bit set of the actions it triggers (see Action.bit()). */
+    private final int[] actionsOfKey = new int[Keys.MAX_KEYCODE + 1];
+
+    /** Key codes with at least one action, so polling only looks at those keys. */
+    private final IntArray boundKeys = new IntArray();
+
+    /** The standard controls: WASD or arrow keys to move, either Shift to run. */
+    public static InputBindings defaults() {
+        InputBindings b = new InputBindings();
+        b.bind(Action.MOVE_UP, Keys.W);    b.bind(Action.MOVE_UP, Keys.UP);
+        b.bind(Action.MOVE_DOWN, Keys.S);  b.bind(Action.MOVE_DOWN, Keys.DOWN);
+        b.bind(Action.MOVE_LEFT, Keys.A);  b.bind(Action.MOVE_LEFT, Keys.LEFT);
+        b.bind(Action.MOVE_RIGHT, Keys.D); b.bind(Action.MOVE_RIGHT, Keys.RIGHT);
+        b.bind(Action.RUN, Keys.SHIFT_LEFT);
+        b.bind(Action.RUN, Keys.SHIFT_RIGHT);
+        return b;
+    }
+
+    // ------------------ EDITING ------------------
+
+    /** Makes a key trigger an action (in addition to its other keys). */
+    public void bind(Action action, int keycode) {
+        if (actionsOfKey[keycode] == 0) boundKeys.add(keycode);
+        actionsOfKey[keycode] |= action.bit();
+    }
+
+    /** Stops a key from triggering an action. */
+    public void unbind(Action action, int keycode) {
+        actionsOfKey[keycode] &= ~action.bit();
+        if (actionsOfKey[keycode] == 0) boundKeys.removeValue(keycode);
+    }
+
+    /** Removes every key of an action. */
+    public void clear(Action action) {
+        for (int i = boundKeys.size - 1; i >= 0; i--)
+            unbind(action, boundKeys.get(i));
+    }
+
+    /** Appends the keys bound to an action to "out". */
+    public void getKeys(Action action, IntArray out) {
+        for (int i = 0; i < boundKeys.size; i++)
+            if ((actionsOfKey[boundKeys.get(i)] & action.bit()) != 0) out.add(boundKeys.get(i));
+    }
+
+    // ------------------ SAMPLING ------------------
+
+    /** Bit set of the actions a key triggers (0 if unbound). */
+    int actionsOf(int keycode) {
+        return (keycode >= 0 && keycode < actionsOfKey.length) ? actionsOfKey[keycode] : 0;
+    }
+
+    /** Returns the bit set of actions triggered by the keys marked in "held" (indexed by key code). */
+    int actionsHeld(boolean[] held) {
+        int bits = 0;
+        int[] keys = boundKeys.items;
+        for (int i = 0, n = boundKeys.size; i < n; i++)
+            if (held[keys[i]]) bits |= actionsOfKey[keys[i]];
+        return bits;
+    }
+
+    /** Checks every bound key once and returns the bit set of actions held right now. */
+    int sample(Input input) {
+        int bits = 0;
+        int[] keys = boundKeys.items;
+        for (int i = 0, n = boundKeys.size; i < n; i++)
+            if (input.isKeyPressed(keys[i])) bits |= actionsOfKey[keys[i]];
+        return bits;
+    }
+}
@@ -0,0 +1,96 @@
+package core.input;
+
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+/**
+ * InputRecorder writes the input of every logic tick to a file, so a play
+ * session can be replayed exactly (see InputReplay).
+ *
+ * File layout (big-endian):
+ *  - header: MAGIC (int), VERSION (int), RNG seed (long)
+ *  - runs: action bits (int, see Action.bit()), number of ticks they were held (int);
+ *          input rarely changes between ticks, so a long session is a few KB
+ *  - trailer: END_OF_RUNS (int), total ticks (long), checksum of the final game state (long)
+ *
+ * Replaying the same ticks from the same seed must reach the same checksum;
+ * a different one means the simulation is not deterministic anymore.
+ */
+public final class InputRecorder {
+
+    /** "PKIR": identifies an input recording. */
+    public static final int MAGIC = 0x504B4952;
+
+    /** Bumped whenever the layout changes. */
+    public static final int VERSION = 1;
+
+    /** Marks the end of the runs (never a valid bit set). */
+    static final int END_OF_RUNS = -1;
+
+    private final DataOutputStream out;
+
+    /** Bits of the run being counted, and how many ticks it lasted so far. */
+    private int runBits, runLength;
+
+    /** Ticks recorded. */
+    private long ticks;
+
+    /** Starts a recording; the seed is what the game seeded its random numbers with. */
+    public InputRecorder(File file, long seed) {
+        try {
+            File parent = file.getAbsoluteFile().getParentFile();
+            if (parent != null) parent.mkdirs();
+            out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(seed);
+        } catch (IOException e) {
+            throw new GdxRuntimeException("Couldn't start recording to " + file, e);
+        }
+    }
+
+    /** Adds one tick's input (InputState.getBits()). */
+    public void record(int actionBits) {
+        ticks++;
+        if (runLength > 0 && actionBits == runBits) {
+            runLength++;
+            return;
+        }
+        writeRun();
+        runBits = actionBits;
+        runLength = 1;
+    }
+
+    /** Writes the trailer and closes the file. */
+    public void finish(long stateChecksum) {
+        try {
+            writeRun();
+            out.writeInt(END_OF_RUNS);
+            out.writeLong(ticks);
+            out.writeLong(stateChecksum);
+            out.close();
+        } catch (IOException e) {
+            throw new GdxRuntimeException("Couldn't finish input recording", e);
+        }
+    }
+
+    private void writeRun() {
+        if (runLength == 0) return;
+        try {
+            out.writeInt(runBits);
+            out.writeInt(runLength);
+        } catch (IOException e) {
+            throw new GdxRuntimeException("Couldn't write input recording", e);
+        }
+    }
+
+    /** Ticks recorded so far. */
+    public long getTicks() {
+        return ticks;
+    }
+}
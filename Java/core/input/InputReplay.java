@@ -0,0 +1,92 @@
+package core.input;
+
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.IntArray;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+
+/**
+ * InputReplay plays back a file written by InputRecorder: one action bit set
+ * per logic tick, to be passed to InputState.set() instead of reading the keyboard.
+ *
+ * The whole recording is read into memory up front (it is small), so next()
+ * never touches the disk or allocates.
+ */
+public final class InputReplay {
+
+    private final long seed;
+    private final long totalTicks;
+    private final long expectedChecksum;
+
+    /** Runs: action bits and how many ticks each lasted. */
+    private final IntArray runBits = new IntArray(), runLengths = new IntArray();
+
+    /** Current run, and ticks already played from it. */
+    private int run, playedInRun;
+
+    /** Ticks played so far. */
+    private long ticks;
+
+    public InputReplay(File file) {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != InputRecorder.MAGIC)
+                throw new GdxRuntimeException("Not an input recording: " + file);
+            int version = in.readInt();
+            if (version != InputRecorder.VERSION)
+                throw new GdxRuntimeException("Unsupported input recording version " + version + ": " + file);
+            seed = in.readLong();
+
+            int bits;
+            while ((bits = in.readInt()) != InputRecorder.END_OF_RUNS) {
+                runBits.add(bits);
+                runLengths.add(in.readInt());
+            }
+            totalTicks = in.readLong();
+            expectedChecksum = in.readLong();
+        } catch (IOException e) {
+            throw new GdxRuntimeException("Couldn't read input recording " + file
+                    + " (unfinished recordings have no trailer)", e);
+        }
+    }
+
+    /** True while there are ticks left to play. */
+    public boolean hasNext() {
+        return ticks < totalTicks;
+    }
+
+    /** Returns the input of the next tick. */
+    public int next() {
+        if (!hasNext()) throw new IllegalStateException("Replay has ended");
+        if (playedInRun == runLengths.get(run)) {
+            run++;
+            playedInRun = 0;
+        }
+        playedInRun++;
+        ticks++;
+        return runBits.get(run);
+    }
+
+    /** Seed the recorded session used for its random numbers. */
+    public long getSeed() {
+        return seed;
+    }
+
+    /** Number of ticks in the recording. */
+    public long getTotalTicks() {
+        return totalTicks;
+    }
+
+    /** Ticks played so far. */
+    public long getTicks() {
+        return ticks;
+    }
+
+    /** Checksum of the game state at the end of the recorded session. */
+    public long getExpectedChecksum() {
+        return expectedChecksum;
+    }
+}
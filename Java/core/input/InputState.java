@@ -0,0 +1,87 @@
+package core.input;
+
+import com.badlogic.gdx.Input;
+import com.badlogic.gdx.Input.Keys;
+
+/**
+ * InputState is a snapshot of which Actions are held, taken once per logic tick.
+ *
+ * The snapshot is built once per tick and stored as a bit set; everything else
+ * reads it. So input costs the same per tick no matter how many systems or
+ * entities look at it, and the whole input of a tick is one int (easy to record
+ * and replay). There are two ways to build it:
+ *  - update(queue, tickEnd): apply the key events that happened up to the end of
+ *    the tick (see KeyEventQueue). A key pressed and released within one tick
+ *    still counts as held for that tick, so short taps are never lost.
+ *  - poll(input): ask the keyboard about each bound key once (for tools without events).
+ */
+public final class InputState {
+
+    /** Which keys mean which actions; rebind through getBindings(). */
+    private final InputBindings bindings;
+
+    /** Actions held this tick and in the previous tick (bit sets, see Action.bit()). */
+    private int bits, previousBits;
+
+    /** Keys currently held according to the events applied so far, by key code. */
+    private final boolean[] keyHeld = new boolean[Keys.MAX_KEYCODE + 1];
+
+    /** Actions pressed at any moment during the tick being built. */
+    private int pressedThisTick;
+
+    /** Applies one key event; kept as a field so draining doesn't allocate. */
+    private final KeyEventQueue.Handler applyEvent;
+
+    public InputState(InputBindings bindings) {
+        this.bindings = bindings;
+        applyEvent = (keycode, down, nanos) -> {
+            if (keycode < 0 || keycode >= keyHeld.length) return;
+            keyHeld[keycode] = down;
+            if (down) pressedThisTick |= bindings.actionsOf(keycode);
+        };
+    }
+
+    // ------------------ PER TICK ------------------
+
+    /**
+     * Builds this tick's snapshot from the key events that happened at or before
+     * tickEndNanos (TimeUtils.nanoTime() clock). Call once at the start of every logic tick.
+     */
+    public void update(KeyEventQueue events, long tickEndNanos) {
+        pressedThisTick = 0;
+        events.drain(tickEndNanos, applyEvent);
+        set(bindings.actionsHeld(keyHeld) | pressedThisTick);
+    }
+
+    /** Samples the keyboard state directly; an alternative to update() for tools without events. */
+    public void poll(Input input) {
+        set(bindings.sample(input));
+    }
+
+    /** Uses the given bit set as this tick's input instead of sampling the keyboard. */
+    public void set(int actionBits) {
+        previousBits = bits;
+        bits = actionBits;
+    }
+
+    // ------------------ QUERIES ------------------
+
+    /** True while the action is held. */
+    public boolean isDown(Action action) {
+        return (bits & action.bit()) != 0;
+    }
+
+    /** True only in the tick the action went from released to held. */
+    public boolean justPressed(Action action) {
+        return (bits & ~previousBits & action.bit()) != 0;
+    }
+
+    /** Actions held this tick, as a bit set. */
+    public int getBits() {
+        return bits;
+    }
+
+    public InputBindings getBindings() {
+        return bindings;
+    }
+}
@@ -0,0 +1,114 @@
+package core.input;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.InputAdapter;
+import com.badlogic.gdx.utils.TimeUtils;
+
+/**
+ * KeyEventQueue records every key press and release with the time it happened,
+ * so the simulation can see taps shorter than a frame and apply each one to the
+ * logic tick it belongs to.
+ *
+ * Install it with Gdx.input.setInputProcessor(queue) (or add it to an
+ * InputMultiplexer); LibGDX then calls keyDown()/keyUp() as events arrive.
+ * The consumer calls drain(untilNanos, handler) once per tick.
+ *
+ * The queue is a fixed-size ring buffer for exactly one producer thread (the one
+ * delivering input events) and one consumer thread (the one running logic ticks).
+ * It uses no locks and never allocates. If the consumer falls more than CAPACITY
+ * events behind, new events are dropped and counted in getDroppedCount().
+ */
+public final class KeyEventQueue extends InputAdapter {
+
+    /** Events the ring holds; a power of two. */
+    public static final int CAPACITY = 256;
+
+    /** Receives drained events, oldest first. */
+    public interface Handler {
+        void onKey(int keycode, boolean down, long nanos);
+    }
+
+    /** Per slot: TimeUtils.nanoTime() of the event, and (keycode << 1) | (down ? 1 : 0). */
+    private final long[] times = new long[CAPACITY];
+    private final int[] events = new int[CAPACITY];
+
+    /**
+     * Total events written and read. The producer only writes "written", the consumer
+     * only writes "read"; the volatile writes publish the slot contents to the other side.
+     */
+    private volatile long written, read;
+
+    /** Events lost because the ring was full (producer side). */
+    private volatile long dropped;
+
+    // ------------------ PRODUCER (InputProcessor) ------------------
+
+    @Override
+    public boolean keyDown(int keycode) {
+        push(keycode, true, eventTime());
+        return false; // Let other processors see the key too.
+    }
+
+    @Override
+    public boolean keyUp(int keycode) {
+        push(keycode, false, eventTime());
+        return false;
+    }
+
+    /**
+     * When the event being delivered happened. LWJGL3 queues key callbacks and hands
+     * them over all at once at the start of the next frame; getCurrentEventTime() is
+     * the nanoTime() taken in the callback itself, so events within one frame keep
+     * their real order and spacing. Backends that don't record it (0) get "now".
+     */
+    private static long eventTime() {
+        long nanos = Gdx.input.getCurrentEventTime();
+        return (nanos != 0) ? nanos : TimeUtils.nanoTime();
+    }
+
+    /** Adds an event; also usable by tools that inject input. Producer thread only. */
+    public void push(int keycode, boolean down, long nanos) {
+        long w = written;
+        if (w - read >= CAPACITY) {
+            dropped++;
+            return;
+        }
+        int slot = (int) (w & (CAPACITY - 1));
+        times[slot] = nanos;
+        events[slot] = (keycode << 1) | (down ? 1 : 0);
+        written = w + 1; // Publish the slot.
+    }
+
+    // ------------------ CONSUMER ------------------
+
+    /**
+     * Hands every event that happened at or before untilNanos to the handler, in
+     * order, and removes it. Later events stay queued for the next call.
+     * Consumer thread only. Returns the number of events handled.
+     */
+    public int drain(long untilNanos, Handler handler) {
+        long r = read, w = written;
+        int handled = 0;
+        while (r < w) {
+            int slot = (int) (r & (CAPACITY - 1));
+            long nanos = times[slot];
+            if (nanos - untilNanos > 0) break; // Belongs to a later tick.
+            int event = events[slot];
+            handler.onKey(event >>> 1, (event & 1) != 0, nanos);
+            r++;
+            handled++;
+        }
+        read = r; // Free the slots for the producer.
+        return handled;
+    }
+
+    /** Events waiting to be drained. */
+    public int size() {
+        return (int) (written - read);
+    }
+
+    /** Events dropped so far because the queue was full. */
+    public long getDroppedCount() {
+        return dropped;
+    }
+}
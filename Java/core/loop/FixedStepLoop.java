@@ -0,0 +1,103 @@
+package core.loop;
+
+/**
+ * FixedStepLoop decides how many fixed-size simulation steps to run each frame.
+ *
+ * Why: feeding the raw frame delta into update() makes movement depend on the
+ * frame rate, and one long hitch turns into one huge jump. Instead, real time is
+ * collected in an "accumulator" and the game is advanced in equal steps
+ * (e.g. 1/60 s), however fast or slow frames are rendered.
+ *
+ * Per frame:
+ *   int steps = loop.advance(Gdx.graphics.getDeltaTime());
+ *   for (int i = 0; i < steps; i++) world.update(loop.getStepSeconds());
+ *   world.render(loop.getAlpha()); // blend previous/current state
+ *
+ * Spiral-of-death protection: if updates are slower than real time, each frame
+ * would need more steps than the last. To stop that, very long frames are clamped
+ * and at most maxStepsPerFrame steps run; any time beyond that is dropped
+ * (the game briefly runs in slow motion instead of freezing).
+ */
+public class FixedStepLoop {
+
+    // ------------------ SETTINGS ------------------
+
+    /** Length of one simulation step, in seconds. */
+    private final float stepSeconds;
+
+    /** Most steps allowed in a single frame before time is dropped. */
+    private final int maxStepsPerFrame;
+
+    /** Longest frame delta accepted (e.g. after a breakpoint or window drag), in seconds. */
+    private final float maxFrameSeconds;
+
+    // ------------------ STATE ------------------
+
+    /** Real time not yet simulated, in seconds. Kept in double so it doesn't drift. */
+    private double accumulator;
+
+    /** How far we are between the last step and the next one, from 0 to 1. */
+    private float alpha;
+
+    /** Total steps run since creation. */
+    private long tick;
+
+    // ------------------ CONSTRUCTOR ------------------
+
+    /**
+     * @param ticksPerSecond   simulation rate, e.g. 60 (rendering can be faster or slower)
+     * @param maxStepsPerFrame catch-up limit per frame, e.g. 5
+     */
+    public FixedStepLoop(int ticksPerSecond, int maxStepsPerFrame) {
+        if (ticksPerSecond <= 0 || maxStepsPerFrame <= 0)
+            throw new IllegalArgumentException("ticksPerSecond and maxStepsPerFrame must be positive");
+        this.stepSeconds = 1f / ticksPerSecond;
+        this.maxStepsPerFrame = maxStepsPerFrame;
+        this.maxFrameSeconds = stepSeconds * maxStepsPerFrame;
+    }
+
+    // ------------------ PER FRAME ------------------
+
+    /**
+     * Adds one frame's real time and returns how many steps to simulate now.
+     * Afterwards getAlpha() tells the renderer how far to blend toward the newest state.
+     */
+    public int advance(float frameSeconds) {
+        // Clamp huge deltas so one hitch can't demand hundreds of steps.
+        accumulator += Math.min(Math.max(frameSeconds, 0f), maxFrameSeconds);
+
+        int steps = 0;
+        while (accumulator >= stepSeconds && steps < maxStepsPerFrame) {
+            accumulator -= stepSeconds;
+            steps++;
+        }
+
+        // Still behind after the cap: drop the backlog instead of carrying it forward.
+        if (accumulator >= stepSeconds)
+            accumulator %= stepSeconds;
+
+        tick += steps;
+        alpha = (float) (accumulator / stepSeconds);
+        return steps;
+    }
+
+    // ------------------ GETTERS ------------------
+
+    /** Fixed delta to pass to update(), in seconds. */
+    public float getStepSeconds() {
+        return stepSeconds;
+    }
+
+    /**
+     * Interpolation factor for rendering: 0 = draw the previous step's state,
+     * 1 = draw the latest step's state.
+     */
+    public float getAlpha() {
+        return alpha;
+    }
+
+    /** Number of steps simulated so far. */
+    public long getTick() {
+        return tick;
+    }
+}
@@ -0,0 +1,84 @@
+package core.loop;
+
+import com.badlogic.gdx.utils.TimeUtils;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * SimulationThread runs the game logic on its own thread, at a fixed rate,
+ * while the render thread only draws.
+ *
+ * With logic and drawing on separate cores, a frame no longer costs
+ * "update + draw": the render thread draws the latest state the simulation
+ * published (see TripleBuffer), whatever the simulation is doing right now.
+ *
+ * The loop is the same FixedStepLoop MainGame uses when everything runs on one
+ * thread: real time goes in, a whole number of steps comes out. Between steps the
+ * thread sleeps until the next one is due.
+ *
+ * An exception thrown by the steps stops the thread; the render thread finds it
+ * with getFailure() and rethrows it, so a crash in the logic isn't silently lost.
+ */
+public final class SimulationThread extends Thread {
+
+    /** The work to run each time steps are due. */
+    public interface Steps {
+        /**
+         * Runs "steps" fixed steps (at least one).
+         *
+         * @param nowNanos when the steps were started (TimeUtils.nanoTime()); the last step ends here
+         */
+        void run(int steps, long nowNanos);
+    }
+
+    private final FixedStepLoop loop;
+    private final Steps steps;
+
+    /** Cleared by shutdown(). */
+    private volatile boolean running = true;
+
+    /** Exception that ended the thread, or null. */
+    private volatile Throwable failure;
+
+    public SimulationThread(FixedStepLoop loop, Steps steps) {
+        super("simulation");
+        this.loop = loop;
+        this.steps = steps;
+        setDaemon(true); // Never keeps the JVM alive on its own.
+    }
+
+    @Override
+    public void run() {
+        long stepNanos = (long) (loop.getStepSeconds() * 1e9);
+        long last = TimeUtils.nanoTime();
+        try {
+            while (running) {
+                long now = TimeUtils.nanoTime();
+                int n = loop.advance((now - last) / 1e9f);
+                last = now;
+                if (n > 0) steps.run(n, now);
+
+                // Sleep until the next step is due (what's left of the current one).
+                LockSupport.parkNanos((long) ((1f - loop.getAlpha()) * stepNanos));
+            }
+        } catch (Throwable t) {
+            failure = t;
+        }
+    }
+
+    /** Stops the loop and waits for the current steps to finish. Call from the render thread. */
+    public void shutdown() {
+        running = false;
+        LockSupport.unpark(this);
+        try {
+            join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /** Exception that stopped the thread, or null while it's fine. */
+    public Throwable getFailure() {
+        return failure;
+    }
+}
@@ -0,0 +1,79 @@
+package core.loop;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * TripleBuffer hands data from one writer thread to one reader thread without
+ * locks, waiting or copying.
+ *
+ * There are three buffers: the writer fills its "back" buffer, the reader uses
+ * its "front" buffer, and the third sits in the middle holding the newest
+ * finished data. publish() swaps the back buffer into the middle; acquire()
+ * swaps the middle into the front if something new was published. Each swap is
+ * one atomic exchange, so neither side ever blocks the other, and a buffer is
+ * never being written and read at the same time.
+ *
+ * If the writer publishes faster than the reader acquires, older data is simply
+ * overwritten: the reader always gets the newest.
+ *
+ * Usage:
+ *   writer: fill(buffer.getWriteBuffer()); buffer.publish();
+ *   reader: buffer.acquire(); draw(buffer.getReadBuffer());
+ */
+public final class TripleBuffer<T> {
+
+    /** Set in "middle" when it holds data the reader hasn't acquired yet. */
+    private static final int FRESH = 4;
+
+    /** Mask of the buffer index in "middle". */
+    private static final int INDEX = 3;
+
+    private final Object[] buffers = new Object[3];
+
+    /** Index of the middle buffer, plus FRESH. Shared between both threads. */
+    private final AtomicInteger middle = new AtomicInteger(1);
+
+    /** Buffer the writer fills (writer thread only). */
+    private int back = 0;
+
+    /** Buffer the reader uses (reader thread only). */
+    private int front = 2;
+
+    /** Creates the three buffers with the given factory. */
+    public TripleBuffer(Supplier<T> factory) {
+        for (int i = 0; i < buffers.length; i++)
+            buffers[i] = factory.get();
+    }
+
+    // ------------------ WRITER ------------------
+
+    /** Buffer to fill next. Writer thread only. */
+    @SuppressWarnings("unchecked")
+    public T getWriteBuffer() {
+        return (T) buffers[back];
+    }
+
+    /** Makes the write buffer the newest data and gives the writer a free buffer. */
+    public void publish() {
+        back = middle.getAndSet(back | FRESH) & INDEX;
+    }
+
+    // ------------------ READER ------------------
+
+    /**
+     * Takes the newest published buffer, if there is one the reader hasn't seen.
+     * Returns false (and keeps the current read buffer) otherwise. Reader thread only.
+     */
+    public boolean acquire() {
+        if ((middle.get() & FRESH) == 0) return false;
+        front = middle.getAndSet(front) & INDEX;
+        return true;
+    }
+
+    /** Buffer acquired last (initially an unwritten one). Reader thread only. */
+    @SuppressWarnings("unchecked")
+    public T getReadBuffer() {
+        return (T) buffers[front];
+    }
+}
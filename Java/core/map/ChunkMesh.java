@@ -0,0 +1,131 @@
+package core.map;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Mesh;
+import com.badlogic.gdx.graphics.VertexAttribute;
+import com.badlogic.gdx.graphics.VertexAttributes.Usage;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.graphics.glutils.ShaderProgram;
+import com.badlogic.gdx.utils.Disposable;
+
+/**
+ * ChunkMesh is one chunk baked into a static GPU mesh: one quad per tile,
+ * uploaded once and then drawn with a single draw call every frame.
+ *
+ * Meshes are recycled: when a chunk leaves the screen its ChunkMesh is rebuilt
+ * for another chunk instead of creating new GPU buffers.
+ *
+ * Filling the vertex array (vertices()) needs no OpenGL, so ChunkStreamer does it
+ * on its loader thread; only the upload in build() runs on the render thread.
+ */
+final class ChunkMesh implements Disposable {
+
+    /** Floats per vertex: x, y, packed color, u, v (the SpriteBatch layout). */
+    private static final int VERTEX_FLOATS = 5;
+
+    private static final int MAX_QUADS = TileChunk.SIZE * TileChunk.SIZE;
+
+    /** Floats needed to hold the vertices of a full chunk. */
+    static final int MAX_VERTEX_FLOATS = MAX_QUADS * 4 * VERTEX_FLOATS;
+
+    /** Index pattern shared by every chunk mesh: two triangles per quad. */
+    private static final short[] INDICES = new short[MAX_QUADS * 6];
+    static {
+        for (int q = 0, v = 0, i = 0; q < MAX_QUADS; q++, v += 4) {
+            INDICES[i++] = (short) v;
+            INDICES[i++] = (short) (v + 1);
+            INDICES[i++] = (short) (v + 2);
+            INDICES[i++] = (short) (v + 2);
+            INDICES[i++] = (short) (v + 3);
+            INDICES[i++] = (short) v;
+        }
+    }
+
+    /** Vertex scratch space for chunks without prebuilt vertices (render thread only). */
+    private static final float[] SCRATCH = new float[MAX_VERTEX_FLOATS];
+
+    private final Mesh mesh;
+
+    /** Chunk currently baked into the mesh. */
+    int cx, cy;
+
+    /** Number of indices to draw (6 per non-empty tile). */
+    private int indexCount;
+
+    ChunkMesh() {
+        mesh = new Mesh(true, MAX_QUADS * 4, INDICES.length,
+                new VertexAttribute(Usage.Position, 2, ShaderProgram.POSITION_ATTRIBUTE),
+                VertexAttribute.ColorPacked(),
+                VertexAttribute.TexCoords(0));
+        mesh.setIndices(INDICES);
+    }
+
+    /** Bakes a chunk's tiles into this mesh, replacing whatever it held before. */
+    void build(TileChunk chunk, Tileset tileset) {
+        cx = chunk.cx;
+        cy = chunk.cy;
+
+        float[] vertices = chunk.vertices;
+        int floats = chunk.vertexFloats;
+        if (vertices == null) {
+            vertices = SCRATCH;
+            floats = vertices(chunk, tileset, SCRATCH);
+        }
+        chunk.vertices = null; // Uploaded now; the GPU copy is all we need.
+
+        mesh.setVertices(vertices, 0, floats);
+        indexCount = floats / (4 * VERTEX_FLOATS) * 6;
+    }
+
+    /**
+     * Writes one quad per non-empty tile of the chunk into "out"
+     * (at least MAX_VERTEX_FLOATS long) and returns the number of floats written.
+     * Safe to call from any thread.
+     */
+    static int vertices(TileChunk chunk, Tileset tileset, float[] out) {
+        float color = Color.WHITE_FLOAT_BITS;
+        float originX = chunk.cx * TileChunk.WORLD_SIZE;
+        float originY = chunk.cy * TileChunk.WORLD_SIZE;
+        int v = 0;
+
+        for (int ly = 0; ly < TileChunk.SIZE; ly++) {
+            for (int lx = 0; lx < TileChunk.SIZE; lx++) {
+                short id = chunk.get(lx, ly);
+                if (id == Tileset.EMPTY) continue;
+
+                TextureRegion tile = tileset.tile(id);
+                float x1 = originX + lx * Tileset.TILE_SIZE, y1 = originY + ly * Tileset.TILE_SIZE;
+                float x2 = x1 + Tileset.TILE_SIZE, y2 = y1 + Tileset.TILE_SIZE;
+                float u = tile.getU(), v1 = tile.getV(), u2 = tile.getU2(), v2 = tile.getV2();
+
+                // Same corner order as SpriteBatch: bottom-left, top-left, top-right, bottom-right.
+                v = put(out, v, x1, y1, color, u, v2);
+                v = put(out, v, x1, y2, color, u, v1);
+                v = put(out, v, x2, y2, color, u2, v1);
+                v = put(out, v, x2, y1, color, u2, v2);
+            }
+        }
+        return v;
+    }
+
+    private static int put(float[] out, int i, float x, float y, float color, float u, float v) {
+        out[i]     = x;
+        out[i + 1] = y;
+        out[i + 2] = color;
+        out[i + 3] = u;
+        out[i + 4] = v;
+        return i + VERTEX_FLOATS;
+    }
+
+    /** Draws the chunk. The shader must be bound and the tile texture active. */
+    void render(ShaderProgram shader) {
+        if (indexCount > 0)
+            mesh.render(shader, GL20.GL_TRIANGLES, 0, indexCount);
+    }
+
+    @Override
+    public void dispose() {
+        mesh.dispose();
+    }
+}
@@ -0,0 +1,24 @@
+package core.map;
+
+/**
+ * ChunkProvider is where map chunks come from: generated, read from a map file,
+ * or streamed in the background.
+ *
+ * The map is getWidthInChunks() x getHeightInChunks() chunks, with chunk (0, 0)
+ * at the world origin.
+ */
+public interface ChunkProvider {
+
+    /** Map width, in chunks. */
+    int getWidthInChunks();
+
+    /** Map height, in chunks. */
+    int getHeightInChunks();
+
+    /**
+     * Returns chunk (cx, cy), or null if it is not available yet (e.g. still
+     * loading); callers then simply try again on a later frame.
+     * Coordinates must be inside the map.
+     */
+    TileChunk getChunk(int cx, int cy);
+}
@@ -0,0 +1,271 @@
+package core.map;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.LongMap;
+import com.badlogic.gdx.utils.async.AsyncExecutor;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * ChunkStreamer keeps only the chunks around the player in memory.
+ *
+ * Every frame, update(playerX, playerY):
+ *  1) collects chunks the loader thread has finished
+ *  2) asks the loader thread for missing chunks within LOAD_RADIUS (nearest first);
+ *     chunks within REQUIRED_RADIUS that still aren't there are loaded right away,
+ *     so the tiles the player can touch are always known (deterministic collision)
+ *  3) forgets chunks beyond EVICT_RADIUS, and the least recently used ones
+ *     whenever more than MAX_LOADED_CHUNKS are held
+ *
+ * The loader thread reads chunks from the source provider (e.g. a memory-mapped
+ * MapFile) and, once a Tileset is set (i.e. when the map is drawn), also fills
+ * their mesh vertices, so the render thread only has to upload them. Memory use is bounded by MAX_LOADED_CHUNKS, not by the map size.
+ *
+ * Loaded chunks are also written into an optional CollisionMap.
+ *
+ * getChunk() returns null for chunks that aren't loaded yet; TileMapRenderer then
+ * skips them for a frame. Everything except the loader thread's work happens on
+ * the thread running the simulation, and update()/getChunk()/capture() don't
+ * allocate in steady state. When the simulation has its own thread, the render
+ * thread reads chunks through a ChunkWindow copy (see capture()) instead.
+ */
+public final class ChunkStreamer implements ChunkProvider, Disposable {
+
+    // ------------------ TUNING ------------------
+
+    /** Chunks within this many chunks of the player's chunk are loaded (5x5 covers the screen plus a border). */
+    public static final int LOAD_RADIUS = 2;
+
+    /** Chunks within this many chunks of the player's chunk are loaded on the spot if still missing. */
+    public static final int REQUIRED_RADIUS = 1;
+
+    /** Chunks further than this from the player's chunk are dropped. */
+    public static final int EVICT_RADIUS = 4;
+
+    /** Most chunks kept at once; beyond this the least recently used are dropped. */
+    public static final int MAX_LOADED_CHUNKS = 64;
+
+    // ------------------ STATE ------------------
+
+    private final ChunkProvider source;
+
+    /** Tiles to prebuild mesh vertices with, or null when nothing is drawn (e.g. headless). */
+    private volatile Tileset tileset;
+
+    /** One background thread: chunks are read and prepared in the order they were requested. */
+    private final AsyncExecutor loader = new AsyncExecutor(1, "chunk-loader");
+
+    /** Chunks finished by the loader thread, waiting to be picked up by update(). */
+    private final ConcurrentLinkedQueue<TileChunk> finished = new ConcurrentLinkedQueue<>();
+
+    /** Loaded chunks by key, plus the same chunks as a list for iterator-free walks. */
+    private final LongMap<TileChunk> loaded = new LongMap<>();
+    private final Array<TileChunk> loadedList = new Array<>(false, MAX_LOADED_CHUNKS);
+
+    /** Keys of chunks requested from the loader thread but not collected yet. */
+    private final LongMap<Boolean> pending = new LongMap<>();
+
+    /** Receives the solidity of every loaded chunk, or null. */
+    private CollisionMap collision;
+
+    /** Chunk the player is in, as of the last update(). */
+    private int centerCx, centerCy;
+
+    /** Counts update() calls; stamps chunks for LRU eviction. */
+    private long frame;
+
+    // ------------------ CONSTRUCTOR ------------------
+
+    public ChunkStreamer(ChunkProvider source) {
+        this.source = source;
+    }
+
+    /** Makes the loader thread prebuild mesh vertices for chunks loaded from now on. */
+    public void setTileset(Tileset tileset) {
+        this.tileset = tileset;
+    }
+
+    /** Sets a collision map to fill with the tiles of every chunk loaded from now on. */
+    public void setCollisionMap(CollisionMap collision) {
+        this.collision = collision;
+    }
+
+    @Override
+    public int getWidthInChunks() {
+        return source.getWidthInChunks();
+    }
+
+    @Override
+    public int getHeightInChunks() {
+        return source.getHeightInChunks();
+    }
+
+    // ------------------ PER FRAME ------------------
+
+    /** Pages chunks in and out around the given world position. Call once per frame. */
+    public void update(float playerX, float playerY) {
+        frame++;
+        centerCx = MathUtils.floor(playerX / TileChunk.WORLD_SIZE);
+        centerCy = MathUtils.floor(playerY / TileChunk.WORLD_SIZE);
+
+        // 1) Collect finished chunks (skipping ones the player has walked away from meanwhile).
+        TileChunk chunk;
+        while ((chunk = finished.poll()) != null) {
+            pending.remove(TileChunk.key(chunk.cx, chunk.cy));
+            if (chunk.loadFailed) continue; // Asked for again below (if still near), not left a hole.
+            if (!isNear(chunk, EVICT_RADIUS)) continue;
+            add(chunk);
+        }
+
+        // 2) Request missing chunks, ring by ring from the player outward.
+        //    (Rarely, e.g. right after a teleport, a chunk next to the player is still
+        //    loading; that one is loaded here and now rather than walking on unknown tiles.)
+        for (int ring = 0; ring <= LOAD_RADIUS; ring++)
+            for (int dy = -ring; dy <= ring; dy++)
+                for (int dx = -ring; dx <= ring; dx++)
+                    if (Math.max(Math.abs(dx), Math.abs(dy)) == ring)
+                        request(centerCx + dx, centerCy + dy, ring <= REQUIRED_RADIUS);
+
+        // 3) Drop far chunks, then the least recently used ones while over budget.
+        for (int i = loadedList.size - 1; i >= 0; i--)
+            if (!isNear(loadedList.get(i), EVICT_RADIUS)) remove(i);
+        while (loadedList.size > MAX_LOADED_CHUNKS)
+            remove(leastRecentlyUsed());
+    }
+
+    /**
+     * Loads the chunks within LOAD_RADIUS of a position right away, on this thread.
+     * Use once when the game starts so the first frames aren't missing tiles.
+     */
+    public void preload(float playerX, float playerY) {
+        int cx0 = MathUtils.floor(playerX / TileChunk.WORLD_SIZE);
+        int cy0 = MathUtils.floor(playerY / TileChunk.WORLD_SIZE);
+        for (int cy = cy0 - LOAD_RADIUS; cy <= cy0 + LOAD_RADIUS; cy++)
+            for (int cx = cx0 - LOAD_RADIUS; cx <= cx0 + LOAD_RADIUS; cx++)
+                if (inMap(cx, cy) && !loaded.containsKey(TileChunk.key(cx, cy)))
+                    add(load(cx, cy));
+        update(playerX, playerY);
+    }
+
+    /** Returns a loaded chunk, or null if it isn't loaded (yet). Simulation thread only. */
+    @Override
+    public TileChunk getChunk(int cx, int cy) {
+        TileChunk chunk = loaded.get(TileChunk.key(cx, cy));
+        if (chunk != null) chunk.lastUsed = frame;
+        return chunk;
+    }
+
+    /** Copies which chunks around the player are loaded into "out", for another thread to read. */
+    public void capture(ChunkWindow out) {
+        out.fill(centerCx, centerCy, source.getWidthInChunks(), source.getHeightInChunks(), loaded);
+    }
+
+    // ------------------ LOADING ------------------
+
+    /**
+     * Marks a chunk as in use and, if it isn't loaded or on its way, asks the loader thread for it.
+     * If "required", a chunk that isn't loaded yet is loaded on this thread instead.
+     */
+    private void request(int cx, int cy, boolean required) {
+        if (!inMap(cx, cy)) return;
+        long key = TileChunk.key(cx, cy);
+        TileChunk chunk = loaded.get(key);
+        if (chunk != null) {
+            chunk.lastUsed = frame;
+            return;
+        }
+        if (required) {
+            add(load(cx, cy)); // A copy still coming from the loader thread is ignored by add().
+            return;
+        }
+        if (pending.containsKey(key)) return;
+
+        pending.put(key, Boolean.TRUE);
+        loader.submit(() -> {
+            try {
+                finished.add(load(cx, cy));
+            } catch (RuntimeException e) {
+                logError("Couldn't load chunk " + cx + "," + cy + "; it will be requested again", e);
+                TileChunk failed = new TileChunk(cx, cy);
+                failed.loadFailed = true;
+                finished.add(failed); // Lets update() clear the pending request.
+            }
+            return null;
+        });
+    }
+
+    /** Logs through LibGDX if an application is running; Simulation also runs without one (SimulationRunner). */
+    private static void logError(String message, Throwable e) {
+        if (Gdx.app != null) {
+            Gdx.app.error("ChunkStreamer", message, e);
+        } else {
+            System.err.println("ChunkStreamer: " + message);
+            e.printStackTrace();
+        }
+    }
+
+    /** Reads a chunk and prepares its mesh vertices. Runs on the loader thread (or on this thread if required). */
+    private TileChunk load(int cx, int cy) {
+        TileChunk chunk = source.getChunk(cx, cy);
+        Tileset tiles = tileset;
+        if (tiles != null) {
+            chunk.vertices = new float[ChunkMesh.MAX_VERTEX_FLOATS];
+            chunk.vertexFloats = ChunkMesh.vertices(chunk, tiles, chunk.vertices);
+        }
+        return chunk;
+    }
+
+    // ------------------ BOOKKEEPING ------------------
+
+    private void add(TileChunk chunk) {
+        long key = TileChunk.key(chunk.cx, chunk.cy);
+        if (loaded.containsKey(key)) return; // Already loaded by preload().
+        chunk.lastUsed = frame;
+        if (collision != null) collision.addChunk(chunk);
+        loaded.put(key, chunk);
+        loadedList.add(chunk);
+    }
+
+    private void remove(int index) {
+        TileChunk chunk = loadedList.removeIndex(index);
+        loaded.remove(TileChunk.key(chunk.cx, chunk.cy));
+    }
+
+    private int leastRecentlyUsed() {
+        int oldest = 0;
+        for (int i = 1; i < loadedList.size; i++)
+            if (loadedList.get(i).lastUsed < loadedList.get(oldest).lastUsed) oldest = i;
+        return oldest;
+    }
+
+    /** True if a chunk is at most "radius" chunks from the player's chunk in both directions. */
+    private boolean isNear(TileChunk chunk, int radius) {
+        return Math.abs(chunk.cx - centerCx) <= radius && Math.abs(chunk.cy - centerCy) <= radius;
+    }
+
+    private boolean inMap(int cx, int cy) {
+        return cx >= 0 && cy >= 0 && cx < source.getWidthInChunks() && cy < source.getHeightInChunks();
+    }
+
+    // ------------------ ACCESSORS ------------------
+
+    /** Number of chunks currently held in memory. */
+    public int getLoadedCount() {
+        return loadedList.size;
+    }
+
+    // ------------------ CLEANUP ------------------
+
+    /** Stops the loader thread and forgets every chunk. */
+    @Override
+    public void dispose() {
+        loader.dispose();
+        loaded.clear();
+        loadedList.clear();
+        pending.clear();
+        finished.clear();
+    }
+}
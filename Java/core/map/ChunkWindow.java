@@ -0,0 +1,75 @@
+package core.map;
+
+import com.badlogic.gdx.utils.LongMap;
+
+/**
+ * ChunkWindow is a copy of which chunks were loaded in a square around the
+ * player, taken by ChunkStreamer.capture().
+ *
+ * ChunkStreamer's own tables change every tick on the simulation thread, so the
+ * render thread can't look chunks up there. Instead each render snapshot carries
+ * a ChunkWindow: only chunk references are copied (the tiles of a loaded chunk
+ * never change), and TileMapRenderer reads it like any other ChunkProvider.
+ *
+ * Chunks outside the window are reported as not loaded.
+ */
+public final class ChunkWindow implements ChunkProvider {
+
+    /** Chunks on each side of the center chunk. */
+    private final int radius;
+
+    /** Side length of the window, in chunks. */
+    private final int size;
+
+    /** Loaded chunks, row by row from (originCx, originCy); null where not loaded. */
+    private final TileChunk[] grid;
+
+    /** Map size, in chunks. */
+    private int widthInChunks, heightInChunks;
+
+    /** Chunk at grid index 0. */
+    private int originCx, originCy;
+
+    /** @param radius chunks on each side of the center chunk to keep */
+    public ChunkWindow(int radius) {
+        this.radius = radius;
+        this.size = radius * 2 + 1;
+        this.grid = new TileChunk[size * size];
+    }
+
+    // ------------------ FILLED BY ChunkStreamer ------------------
+
+    /**
+     * Recenters the window on chunk (centerCx, centerCy) and copies in the chunks of
+     * "loaded" (by TileChunk.key()) that fall inside it. Doesn't allocate.
+     */
+    void fill(int centerCx, int centerCy, int widthInChunks, int heightInChunks, LongMap<TileChunk> loaded) {
+        this.widthInChunks = widthInChunks;
+        this.heightInChunks = heightInChunks;
+        originCx = centerCx - radius;
+        originCy = centerCy - radius;
+        for (int gy = 0; gy < size; gy++)
+            for (int gx = 0; gx < size; gx++)
+                grid[gy * size + gx] = loaded.get(TileChunk.key(originCx + gx, originCy + gy));
+    }
+
+    // ------------------ ChunkProvider ------------------
+
+    @Override
+    public int getWidthInChunks() {
+        return widthInChunks;
+    }
+
+    @Override
+    public int getHeightInChunks() {
+        return heightInChunks;
+    }
+
+    /** Returns chunk (cx, cy) if it was loaded when the window was captured, else null. */
+    @Override
+    public TileChunk getChunk(int cx, int cy) {
+        int gx = cx - originCx, gy = cy - originCy;
+        if (gx < 0 || gy < 0 || gx >= size || gy >= size) return null;
+        return grid[gy * size + gx];
+    }
+}
@@ -0,0 +1,138 @@
+package core.map;
+
+import com.badlogic.gdx.math.MathUtils;
+
+import java.util.Arrays;
+
+/**
+ * CollisionMap records which tiles block movement, as one bit per tile.
+ *
+ * Each row of tiles is packed into longs (64 tiles per long), so checking a run
+ * of tiles in a row is one or two mask tests. For the full 10,016 x 10,016 tile
+ * overworld the mask is about 12.5 MB, whatever is loaded.
+ *
+ * Tiles start out solid and become walkable when their chunk is added
+ * (ChunkStreamer does that as chunks load); solidity never changes afterwards, so
+ * the bits stay valid after a chunk is evicted. Outside the map everything is solid.
+ *
+ * moveX()/moveY() move an axis-aligned box along one axis and stop it at the
+ * first solid tile on the way (a swept test), so even very fast movement
+ * can't skip through a wall. Render/logic thread only.
+ */
+public final class CollisionMap {
+
+    private final int widthTiles, heightTiles;
+
+    /** Longs per row of tiles. */
+    private final int wordsPerRow;
+
+    /** Bit (tx % 64) of solid[ty * wordsPerRow + tx / 64] is set if tile (tx, ty) is solid. */
+    private final long[] solid;
+
+    // ------------------ CONSTRUCTOR ------------------
+
+    public CollisionMap(int widthInChunks, int heightInChunks) {
+        widthTiles = widthInChunks * TileChunk.SIZE;
+        heightTiles = heightInChunks * TileChunk.SIZE;
+        wordsPerRow = (widthTiles + 63) >>> 6;
+        solid = new long[wordsPerRow * heightTiles];
+        Arrays.fill(solid, -1L); // Unknown until the chunk is added: blocked.
+    }
+
+    /** True if walking into a tile with this id is not allowed. */
+    public static boolean isSolidTile(short id) {
+        return id == Tileset.WATER || id == Tileset.TREE || id == Tileset.ROCK;
+    }
+
+    // ------------------ UPDATES ------------------
+
+    /** Copies the solidity of every tile of a chunk into the mask. */
+    public void addChunk(TileChunk chunk) {
+        int tx0 = chunk.cx * TileChunk.SIZE, ty0 = chunk.cy * TileChunk.SIZE;
+        for (int ly = 0; ly < TileChunk.SIZE; ly++) {
+            int row = (ty0 + ly) * wordsPerRow;
+            for (int lx = 0; lx < TileChunk.SIZE; lx++) {
+                int tx = tx0 + lx;
+                long bit = 1L << (tx & 63);
+                if (isSolidTile(chunk.get(lx, ly))) solid[row + (tx >>> 6)] |= bit;
+                else                                solid[row + (tx >>> 6)] &= ~bit;
+            }
+        }
+    }
+
+    // ------------------ TESTS ------------------
+
+    /** True if tile (tx, ty) is solid (or outside the map). */
+    public boolean isSolid(int tx, int ty) {
+        if (tx < 0 || ty < 0 || tx >= widthTiles || ty >= heightTiles) return true;
+        return (solid[ty * wordsPerRow + (tx >>> 6)] & (1L << (tx & 63))) != 0;
+    }
+
+    /** True if any tile tx0..tx1 (inclusive) of row ty is solid (or outside the map). */
+    public boolean anySolid(int ty, int tx0, int tx1) {
+        if (ty < 0 || ty >= heightTiles || tx0 < 0 || tx1 >= widthTiles) return true;
+        int row = ty * wordsPerRow;
+        int w0 = tx0 >>> 6, w1 = tx1 >>> 6;
+        for (int w = w0; w <= w1; w++) {
+            long mask = -1L;
+            if (w == w0) mask &= -1L << (tx0 & 63);         // drop tiles left of tx0
+            if (w == w1) mask &= -1L >>> (63 - (tx1 & 63)); // drop tiles right of tx1
+            if ((solid[row + w] & mask) != 0) return true;
+        }
+        return false;
+    }
+
+    // ------------------ SWEPT MOVEMENT ------------------
+
+    /**
+     * Moves a box horizontally by dx and returns its new left edge, stopping flush
+     * against the first solid tile column it would enter.
+     * Boxes are in world units, left/bottom edges inclusive and right/top exclusive.
+     */
+    public float moveX(float left, float bottom, float width, float height, float dx) {
+        if (dx == 0f) return left;
+        int row0 = tile(bottom), row1 = lastTile(bottom + height);
+
+        if (dx > 0f) {
+            float right = left + width;
+            for (int col = lastTile(right) + 1, end = lastTile(right + dx); col <= end; col++)
+                if (columnSolid(col, row0, row1)) return col * Tileset.TILE_SIZE - width;
+        } else {
+            for (int col = tile(left) - 1, end = tile(left + dx); col >= end; col--)
+                if (columnSolid(col, row0, row1)) return (col + 1) * Tileset.TILE_SIZE;
+        }
+        return left + dx;
+    }
+
+    /** Like moveX(), vertically: returns the box's new bottom edge. */
+    public float moveY(float left, float bottom, float width, float height, float dy) {
+        if (dy == 0f) return bottom;
+        int col0 = tile(left), col1 = lastTile(left + width);
+
+        if (dy > 0f) {
+            float top = bottom + height;
+            for (int row = lastTile(top) + 1, end = lastTile(top + dy); row <= end; row++)
+                if (anySolid(row, col0, col1)) return row * Tileset.TILE_SIZE - height;
+        } else {
+            for (int row = tile(bottom) - 1, end = tile(bottom + dy); row >= end; row--)
+                if (anySolid(row, col0, col1)) return (row + 1) * Tileset.TILE_SIZE;
+        }
+        return bottom + dy;
+    }
+
+    private boolean columnSolid(int tx, int ty0, int ty1) {
+        for (int ty = ty0; ty <= ty1; ty++)
+            if (isSolid(tx, ty)) return true;
+        return false;
+    }
+
+    /** Tile containing a coordinate. */
+    private static int tile(float coordinate) {
+        return MathUtils.floor(coordinate / Tileset.TILE_SIZE);
+    }
+
+    /** Last tile covered by a span ending (exclusively) at a coordinate. */
+    private static int lastTile(float end) {
+        return MathUtils.ceil(end / Tileset.TILE_SIZE) - 1;
+    }
+}
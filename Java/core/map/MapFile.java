@@ -0,0 +1,214 @@
+package core.map;
+
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * MapFile reads chunks from a compact binary map file on demand.
+ *
+ * File layout (big-endian):
+ *  - header: MAGIC (int), VERSION (int), width in chunks (int), height in chunks (int),
+ *            TileChunk.SIZE (int), REGION_SIZE (int)
+ *  - regions: REGION_SIZE x REGION_SIZE chunks each, row by row (ry, then rx);
+ *             regions on the right/top edge are padded to full size
+ *  - inside a region: chunks row by row, each TileChunk.SIZE^2 tile ids as shorts
+ *
+ * Chunks that are close in the world are close in the file, so a region is
+ * memory-mapped as a whole when one of its chunks is first needed, and reading
+ * a chunk is a plain copy out of the mapping (the OS pages the data in).
+ * Only the MAX_MAPPED_REGIONS most recently used regions stay mapped.
+ * A 10,000 x 10,000 tile map is about 200 MB on disk but only the regions near the player are touched.
+ *
+ * getChunk() may be called from several threads at once.
+ */
+public final class MapFile implements ChunkProvider, Disposable {
+
+    // ------------------ FORMAT ------------------
+
+    /** "PKMP": identifies a map file. */
+    public static final int MAGIC = 0x504B4D50;
+
+    /** Bumped whenever the layout changes. */
+    public static final int VERSION = 2;
+
+    /** Chunks along each side of a region. */
+    public static final int REGION_SIZE = 8;
+
+    /** Bytes before the first region. */
+    private static final int HEADER_BYTES = 6 * Integer.BYTES;
+
+    /** Bytes per chunk. */
+    private static final int CHUNK_BYTES = TileChunk.SIZE * TileChunk.SIZE * Short.BYTES;
+
+    /** Bytes per region (REGION_SIZE^2 chunks). */
+    private static final int REGION_BYTES = REGION_SIZE * REGION_SIZE * CHUNK_BYTES;
+
+    /** Regions kept mapped at once; older mappings are dropped and freed by the GC. */
+    private static final int MAX_MAPPED_REGIONS = 16;
+
+    // ------------------ STATE ------------------
+
+    private final FileChannel channel;
+    private final int widthInChunks, heightInChunks;
+
+    /** Regions per row of the map. */
+    private final int regionsWide;
+
+    /** Mapped regions by region index, least recently used first; guarded by itself. */
+    private final Map<Integer, MappedByteBuffer> mapped =
+            new LinkedHashMap<Integer, MappedByteBuffer>(MAX_MAPPED_REGIONS * 2, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Integer, MappedByteBuffer> eldest) {
+                    return size() > MAX_MAPPED_REGIONS;
+                }
+            };
+
+    // ------------------ OPEN ------------------
+
+    /** Opens a map file and validates its header. */
+    public MapFile(File file) {
+        try {
+            channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            channel.read(header, 0);
+            header.flip();
+            if (header.remaining() < HEADER_BYTES || header.getInt() != MAGIC)
+                throw new GdxRuntimeException("Not a map file: " + file);
+            int version = header.getInt();
+            if (version != VERSION)
+                throw new GdxRuntimeException("Unsupported map version " + version + ": " + file);
+            widthInChunks = header.getInt();
+            heightInChunks = header.getInt();
+            int chunkSize = header.getInt();
+            if (chunkSize != TileChunk.SIZE)
+                throw new GdxRuntimeException("Map uses chunk size " + chunkSize + ", expected " + TileChunk.SIZE + ": " + file);
+            int regionSize = header.getInt();
+            if (regionSize != REGION_SIZE)
+                throw new GdxRuntimeException("Map uses region size " + regionSize + ", expected " + REGION_SIZE + ": " + file);
+            regionsWide = regionsAlong(widthInChunks);
+        } catch (IOException e) {
+            throw new GdxRuntimeException("Couldn't open map " + file, e);
+        }
+    }
+
+    @Override
+    public int getWidthInChunks() {
+        return widthInChunks;
+    }
+
+    @Override
+    public int getHeightInChunks() {
+        return heightInChunks;
+    }
+
+    // ------------------ READING ------------------
+
+    @Override
+    public TileChunk getChunk(int cx, int cy) {
+        int region = (cy / REGION_SIZE) * regionsWide + cx / REGION_SIZE;
+        int offset = chunkInRegion(cx, cy) * CHUNK_BYTES;
+
+        // duplicate(): each caller gets its own position, so threads don't disturb each other.
+        ByteBuffer data = region(region).duplicate();
+        data.position(offset).limit(offset + CHUNK_BYTES);
+
+        TileChunk chunk = new TileChunk(cx, cy);
+        data.slice().asShortBuffer().get(chunk.tiles);
+        return chunk;
+    }
+
+    /** Returns the mapping of a region, mapping it first if needed. */
+    private MappedByteBuffer region(int region) {
+        synchronized (mapped) {
+            MappedByteBuffer buffer = mapped.get(region);
+            if (buffer != null) return buffer;
+            try {
+                buffer = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_BYTES + (long) region * REGION_BYTES, REGION_BYTES);
+            } catch (IOException e) {
+                throw new GdxRuntimeException("Couldn't map region " + region + " of the map file", e);
+            }
+            mapped.put(region, buffer);
+            return buffer;
+        }
+    }
+
+    /** Position of chunk (cx, cy) among the REGION_SIZE^2 chunks of its region. */
+    private static int chunkInRegion(int cx, int cy) {
+        return (cy % REGION_SIZE) * REGION_SIZE + cx % REGION_SIZE;
+    }
+
+    /** Regions needed to cover the given number of chunks. */
+    private static int regionsAlong(int chunks) {
+        return (chunks + REGION_SIZE - 1) / REGION_SIZE;
+    }
+
+    // ------------------ WRITING ------------------
+
+    /**
+     * Writes every chunk of a provider (e.g. a ProceduralChunkProvider) to a new map file.
+     * Padding chunks past the map edge are written as Tileset.EMPTY.
+     */
+    public static void write(ChunkProvider source, File file) throws IOException {
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null) parent.mkdirs();
+
+        try (FileChannel out = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            header.putInt(MAGIC).putInt(VERSION)
+                    .putInt(source.getWidthInChunks()).putInt(source.getHeightInChunks())
+                    .putInt(TileChunk.SIZE).putInt(REGION_SIZE).flip();
+            writeFully(out, header);
+
+            TileChunk padding = new TileChunk(0, 0);
+            Arrays.fill(padding.tiles, Tileset.EMPTY);
+
+            ByteBuffer data = ByteBuffer.allocateDirect(REGION_BYTES);
+            for (int ry = 0; ry < regionsAlong(source.getHeightInChunks()); ry++) {
+                for (int rx = 0; rx < regionsAlong(source.getWidthInChunks()); rx++) {
+                    // Chunks of one region are written in the order chunkInRegion() expects.
+                    data.clear();
+                    for (int ly = 0; ly < REGION_SIZE; ly++) {
+                        for (int lx = 0; lx < REGION_SIZE; lx++) {
+                            int cx = rx * REGION_SIZE + lx, cy = ry * REGION_SIZE + ly;
+                            boolean inside = cx < source.getWidthInChunks() && cy < source.getHeightInChunks();
+                            data.asShortBuffer().put((inside ? source.getChunk(cx, cy) : padding).tiles);
+                            data.position(data.position() + CHUNK_BYTES);
+                        }
+                    }
+                    data.flip();
+                    writeFully(out, data);
+                }
+            }
+        }
+    }
+
+    private static void writeFully(FileChannel out, ByteBuffer data) throws IOException {
+        while (data.hasRemaining())
+            out.write(data);
+    }
+
+    // ------------------ CLEANUP ------------------
+
+    @Override
+    public void dispose() {
+        synchronized (mapped) {
+            mapped.clear();
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new GdxRuntimeException(e);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package core.map;
+
+/**
+ * ProceduralChunkProvider generates an overworld from a seed, so maps of any
+ * size cost no disk space: meadows with trees, rocks and flowers, lakes,
+ * patches of tall grass, and a grid of paths.
+ *
+ * The same seed always produces the same map. Every getChunk() call generates
+ * a new TileChunk; callers keep the chunks they need.
+ */
+public final class ProceduralChunkProvider implements ChunkProvider {
+
+    /** Tiles between two parallel paths. */
+    private static final int PATH_SPACING = 64;
+
+    /** Tiles per cell of the coarse noise that places lakes and tall grass. */
+    private static final int NOISE_CELL = 16;
+
+    private final int widthInChunks, heightInChunks;
+    private final long seed;
+
+    public ProceduralChunkProvider(int widthInChunks, int heightInChunks, long seed) {
+        this.widthInChunks = widthInChunks;
+        this.heightInChunks = heightInChunks;
+        this.seed = seed;
+    }
+
+    @Override
+    public int getWidthInChunks() {
+        return widthInChunks;
+    }
+
+    @Override
+    public int getHeightInChunks() {
+        return heightInChunks;
+    }
+
+    @Override
+    public TileChunk getChunk(int cx, int cy) {
+        TileChunk chunk = new TileChunk(cx, cy);
+        for (int ly = 0; ly < TileChunk.SIZE; ly++)
+            for (int lx = 0; lx < TileChunk.SIZE; lx++)
+                chunk.set(lx, ly, tileAt(cx * TileChunk.SIZE + lx, cy * TileChunk.SIZE + ly));
+        return chunk;
+    }
+
+    // ------------------ GENERATION ------------------
+
+    /** Picks the tile at world tile coordinates (tx, ty). */
+    private short tileAt(int tx, int ty) {
+        // Paths: two tiles wide, every PATH_SPACING tiles in both directions.
+        if (tx % PATH_SPACING < 2 || ty % PATH_SPACING < 2) return Tileset.PATH;
+
+        // Lakes and tall grass follow smooth noise so they form patches.
+        float terrain = noise(tx, ty);
+        if (terrain < 0.22f) return Tileset.WATER;
+        if (terrain > 0.78f) return Tileset.TALL_GRASS;
+
+        // Scatter decorations on plain grass.
+        int r = (int) (hash(tx, ty, 1) & 0xff);
+        if (r < 8)  return Tileset.TREE;
+        if (r < 11) return Tileset.ROCK;
+        if (r < 19) return Tileset.FLOWERS;
+        if (r < 40) return Tileset.GRASS_TUFT;
+        return Tileset.GRASS;
+    }
+
+    /** Value noise in [0, 1): random values on a NOISE_CELL grid, blended bilinearly. */
+    private float noise(int tx, int ty) {
+        int gx = tx / NOISE_CELL, gy = ty / NOISE_CELL;
+        float fx = (tx % NOISE_CELL) / (float) NOISE_CELL;
+        float fy = (ty % NOISE_CELL) / (float) NOISE_CELL;
+
+        float a = unit(gx, gy), b = unit(gx + 1, gy);
+        float c = unit(gx, gy + 1), d = unit(gx + 1, gy + 1);
+        float bottom = a + (b - a) * fx;
+        float top = c + (d - c) * fx;
+        return bottom + (top - bottom) * fy;
+    }
+
+    /** Random value in [0, 1) for a noise grid point. */
+    private float unit(int gx, int gy) {
+        return (hash(gx, gy, 0) >>> 40) / (float) (1L << 24);
+    }
+
+    /** Mixes coordinates and the seed into 64 well-distributed bits (SplitMix64 finalizer). */
+    private long hash(int x, int y, int salt) {
+        long h = seed + x * 0x9E3779B97F4A7C15L + y * 0xC2B2AE3D27D4EB4FL + salt * 0x165667B19E3779F9L;
+        h = (h ^ (h >>> 30)) * 0xBF58476D1CE4E5B9L;
+        h = (h ^ (h >>> 27)) * 0x94D049BB133111EBL;
+        return h ^ (h >>> 31);
+    }
+}
@@ -0,0 +1,58 @@
+package core.map;
+
+/**
+ * TileChunk is a SIZE x SIZE square of tile ids, the unit in which maps are
+ * stored, loaded and drawn.
+ *
+ * Chunk (cx, cy) covers tiles cx*SIZE .. cx*SIZE+SIZE-1 horizontally (and the same
+ * vertically). Rows are stored bottom to top, matching the y-up world.
+ */
+public final class TileChunk {
+
+    /** Tiles along each side of a chunk. */
+    public static final int SIZE = 32;
+
+    /** Side length of a chunk in world units. */
+    public static final int WORLD_SIZE = SIZE * Tileset.TILE_SIZE;
+
+    /** Chunk coordinates (in chunks, not tiles). */
+    public final int cx, cy;
+
+    /** Tile ids, indexed [localY * SIZE + localX]. */
+    public final short[] tiles = new short[SIZE * SIZE];
+
+    /**
+     * Mesh vertices built ahead of time off the render thread (see ChunkStreamer),
+     * or null. ChunkMesh uploads them and then drops them to save memory.
+     */
+    float[] vertices;
+
+    /** Number of floats used in "vertices". */
+    int vertexFloats;
+
+    /** Frame on which ChunkStreamer last saw this chunk in use (for LRU eviction). */
+    long lastUsed;
+
+    /** True for the empty stand-in the loader thread hands back when loading failed (see ChunkStreamer). */
+    boolean loadFailed;
+
+    public TileChunk(int cx, int cy) {
+        this.cx = cx;
+        this.cy = cy;
+    }
+
+    /** Packs chunk coordinates into one long, for use as a map key. */
+    public static long key(int cx, int cy) {
+        return ((long) cx << 32) | (cy & 0xFFFFFFFFL);
+    }
+
+    /** Tile id at local tile coordinates (0 .. SIZE-1). */
+    public short get(int localX, int localY) {
+        return tiles[localY * SIZE + localX];
+    }
+
+    /** Sets the tile id at local tile coordinates. */
+    public void set(int localX, int localY, short id) {
+        tiles[localY * SIZE + localX] = id;
+    }
+}
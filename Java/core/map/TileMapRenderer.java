@@ -0,0 +1,189 @@
+package core.map;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.glutils.ShaderProgram;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.LongMap;
+
+/**
+ * TileMapRenderer draws the tile map under everything else.
+ *
+ * Each frame it works out which chunks the camera can see (the camera frustum is an
+ * axis-aligned rectangle for our 2D orthographic camera) and draws only those, one
+ * prebaked ChunkMesh each. So the cost per frame depends on the screen size, not
+ * on the map size: a 10,000 x 10,000 tile map draws as fast as a tiny one.
+ *
+ * Chunks next to the screen are baked ahead of time (a few per frame) so walking
+ * across a chunk border doesn't have to bake a chunk on the spot; chunks far away
+ * give their mesh back to a pool.
+ *
+ * Once the camera stops moving into unseen chunks, render() does not allocate.
+ */
+public final class TileMapRenderer implements Disposable {
+
+    // ------------------ TUNING ------------------
+
+    /** Chunks around the visible ones that are baked ahead of time. */
+    private static final int PREFETCH_MARGIN = 1;
+
+    /** Most prefetch chunks baked per frame (chunks already on screen are always baked). */
+    private static final int MAX_PREFETCH_PER_FRAME = 2;
+
+    /** Meshes are released only when their chunk is this far outside the visible range. */
+    private static final int RELEASE_MARGIN = PREFETCH_MARGIN + 1;
+
+    // ------------------ STATE ------------------
+
+    private final ChunkProvider provider;
+    private final Tileset tileset;
+
+    /** The standard SpriteBatch shader: position, packed color, one texture. */
+    private final ShaderProgram shader = SpriteBatch.createDefaultShader();
+
+    /** Baked meshes by chunk key (see TileChunk.key()). */
+    private final LongMap<ChunkMesh> baked = new LongMap<>();
+
+    /** Same meshes as "baked", as a list that can be walked without an iterator. */
+    private final Array<ChunkMesh> live = new Array<>(false, 16);
+
+    /** Meshes not holding any chunk, ready to be rebuilt. */
+    private final Array<ChunkMesh> pool = new Array<>(false, 16);
+
+    /** Visible chunk range of the last render() call (inclusive). */
+    private int minCx, minCy, maxCx, maxCy;
+
+    // ------------------ CONSTRUCTOR ------------------
+
+    public TileMapRenderer(ChunkProvider provider, Tileset tileset) {
+        this.provider = provider;
+        this.tileset = tileset;
+    }
+
+    // ------------------ RENDER ------------------
+
+    /** Draws every chunk the camera can see. Call outside SpriteBatch begin()/end(). */
+    public void render(OrthographicCamera camera) {
+        render(camera, provider);
+    }
+
+    /**
+     * Like render(camera), taking this frame's chunks from "chunks" (e.g. the
+     * ChunkWindow of a render snapshot) instead of the provider given at construction.
+     * Both must describe the same map.
+     */
+    public void render(OrthographicCamera camera, ChunkProvider chunks) {
+        // 1) Visible world rectangle -> visible chunk range, clamped to the map.
+        float halfW = camera.viewportWidth * camera.zoom / 2f;
+        float halfH = camera.viewportHeight * camera.zoom / 2f;
+        minCx = clampX(MathUtils.floor((camera.position.x - halfW) / TileChunk.WORLD_SIZE));
+        maxCx = clampX(MathUtils.floor((camera.position.x + halfW) / TileChunk.WORLD_SIZE));
+        minCy = clampY(MathUtils.floor((camera.position.y - halfH) / TileChunk.WORLD_SIZE));
+        maxCy = clampY(MathUtils.floor((camera.position.y + halfH) / TileChunk.WORLD_SIZE));
+
+        // 2) Give meshes of far-away chunks back to the pool.
+        releaseFarChunks();
+
+        // 3) Draw the visible chunks, baking any that aren't ready yet.
+        Gdx.gl.glDisable(GL20.GL_BLEND); // Tiles are opaque.
+        shader.bind();
+        shader.setUniformMatrix("u_projTrans", camera.combined);
+        shader.setUniformi("u_texture", 0);
+        tileset.getTexture().bind(0);
+
+        for (int cy = minCy; cy <= maxCy; cy++) {
+            for (int cx = minCx; cx <= maxCx; cx++) {
+                ChunkMesh mesh = bake(chunks, cx, cy);
+                if (mesh != null) mesh.render(shader);
+            }
+        }
+
+        // 4) Bake a few chunks just outside the screen, ready for when the camera moves.
+        prefetch(chunks);
+    }
+
+    /** Bakes chunks around the visible range, at most MAX_PREFETCH_PER_FRAME per frame. */
+    private void prefetch(ChunkProvider chunks) {
+        int budget = MAX_PREFETCH_PER_FRAME;
+        int x0 = clampX(minCx - PREFETCH_MARGIN), x1 = clampX(maxCx + PREFETCH_MARGIN);
+        int y0 = clampY(minCy - PREFETCH_MARGIN), y1 = clampY(maxCy + PREFETCH_MARGIN);
+        for (int cy = y0; cy <= y1 && budget > 0; cy++) {
+            for (int cx = x0; cx <= x1 && budget > 0; cx++) {
+                if (baked.containsKey(TileChunk.key(cx, cy))) continue;
+                if (bake(chunks, cx, cy) != null) budget--;
+            }
+        }
+    }
+
+    // ------------------ CHUNK MESHES ------------------
+
+    /** Returns the mesh of chunk (cx, cy), baking it first if needed; null if the chunk isn't available. */
+    private ChunkMesh bake(ChunkProvider chunks, int cx, int cy) {
+        long key = TileChunk.key(cx, cy);
+        ChunkMesh mesh = baked.get(key);
+        if (mesh != null) return mesh;
+
+        TileChunk chunk = chunks.getChunk(cx, cy);
+        if (chunk == null) return null; // Not loaded yet; try again next frame.
+
+        mesh = (pool.size > 0) ? pool.pop() : new ChunkMesh();
+        mesh.build(chunk, tileset);
+        baked.put(key, mesh);
+        live.add(mesh);
+        return mesh;
+    }
+
+    /** Returns meshes whose chunk is more than RELEASE_MARGIN chunks outside the visible range. */
+    private void releaseFarChunks() {
+        for (int i = live.size - 1; i >= 0; i--) {
+            ChunkMesh mesh = live.get(i);
+            boolean far = mesh.cx < minCx - RELEASE_MARGIN || mesh.cx > maxCx + RELEASE_MARGIN
+                       || mesh.cy < minCy - RELEASE_MARGIN || mesh.cy > maxCy + RELEASE_MARGIN;
+            if (!far) continue;
+            baked.remove(TileChunk.key(mesh.cx, mesh.cy));
+            live.removeIndex(i);
+            pool.add(mesh);
+        }
+    }
+
+    private int clampX(int cx) {
+        return MathUtils.clamp(cx, 0, provider.getWidthInChunks() - 1);
+    }
+
+    private int clampY(int cy) {
+        return MathUtils.clamp(cy, 0, provider.getHeightInChunks() - 1);
+    }
+
+    // ------------------ ACCESSORS ------------------
+
+    /** Map width in world units. */
+    public float getWorldWidth() {
+        return provider.getWidthInChunks() * (float) TileChunk.WORLD_SIZE;
+    }
+
+    /** Map height in world units. */
+    public float getWorldHeight() {
+        return provider.getHeightInChunks() * (float) TileChunk.WORLD_SIZE;
+    }
+
+    /** Number of chunk meshes currently baked (visible plus prefetched). */
+    public int getBakedChunkCount() {
+        return live.size;
+    }
+
+    // ------------------ CLEANUP ------------------
+
+    @Override
+    public void dispose() {
+        for (ChunkMesh mesh : live) mesh.dispose();
+        for (ChunkMesh mesh : pool) mesh.dispose();
+        live.clear();
+        pool.clear();
+        baked.clear();
+        shader.dispose();
+    }
+}
@@ -0,0 +1,74 @@
+package core.map;
+
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import core.assets.Assets;
+
+/**
+ * Tileset cuts the tile sheet (assets/tiles/tileset.PNG) into TILE_SIZE x TILE_SIZE tiles.
+ *
+ * Tiles are numbered left to right starting at 0; a map stores these numbers.
+ * All tiles share one texture, so a whole chunk can be drawn with a single mesh.
+ */
+public final class Tileset {
+
+    // ------------------ CONSTANTS ------------------
+
+    /** Width and height of one tile, in pixels and in world units. */
+    public static final int TILE_SIZE = 16;
+
+    /** Sprite folder and image name of the tile sheet. */
+    public static final String FOLDER = "tiles";
+    private static final String[] SHEET = { "tileset" };
+
+    /** Tile ids, in the order they appear in the sheet. */
+    public static final short GRASS      = 0;
+    public static final short GRASS_TUFT = 1;
+    public static final short FLOWERS    = 2;
+    public static final short PATH       = 3;
+    public static final short WATER      = 4;
+    public static final short TALL_GRASS = 5;
+    public static final short TREE       = 6;
+    public static final short ROCK       = 7;
+
+    /** Id of a cell with no tile; nothing is drawn there. */
+    public static final short EMPTY = -1;
+
+    // ------------------ STATE ------------------
+
+    /** One region per tile id. */
+    private final TextureRegion[] tiles;
+
+    // ------------------ CONSTRUCTOR ------------------
+
+    /** Splits an already loaded sheet (see queueAssets) into tiles. */
+    public Tileset(Assets assets) {
+        TextureRegion sheet = assets.region(FOLDER, SHEET[0]);
+        int count = sheet.getRegionWidth() / TILE_SIZE;
+        tiles = new TextureRegion[count];
+        for (int i = 0; i < count; i++)
+            tiles[i] = new TextureRegion(sheet, i * TILE_SIZE, 0, TILE_SIZE, TILE_SIZE);
+    }
+
+    /** Queues the tile sheet for loading; call during startup. */
+    public static void queueAssets(Assets assets) {
+        assets.queueSprites(FOLDER, SHEET);
+    }
+
+    // ------------------ LOOKUP ------------------
+
+    /** Region of a tile id. */
+    public TextureRegion tile(int id) {
+        return tiles[id];
+    }
+
+    /** Number of tiles in the sheet. */
+    public int getCount() {
+        return tiles.length;
+    }
+
+    /** Texture every tile is cut from. */
+    public Texture getTexture() {
+        return tiles[0].getTexture();
+    }
+}
@@ -0,0 +1,245 @@
+package core.perf;
+
+import com.badlogic.gdx.utils.TimeUtils;
+
+/**
+ * FrameStats measures where each frame's time goes, for the performance HUD.
+ *
+ * MainGame.render calls startFrame() first, endPhase(PHASE) at the end of each
+ * labelled phase, and endFrame() last. FrameStats keeps:
+ *  - the CPU time of every phase, averaged over the last AVERAGE_FRAMES frames
+ *  - the time of one simulation tick (recordTick()), averaged the same way
+ *  - the time between frames (what the player sees, including vsync) over the
+ *    last LOW_FRAMES frames, in LOW_BUCKET_NANOS buckets, for the "1% low" and
+ *    "0.1% low": the frame time that 99% / 99.9% of recent frames beat
+ *  - histograms of every frame interval, phase and tick since the start (or
+ *    resetHistograms()), for percentile reports (see FrameTimeReport)
+ *
+ * Everything is fixed-size arrays updated in place: a few nanoTime() calls and
+ * array writes per frame, no allocation, so it can stay on all the time.
+ *
+ * During a flight recording it also emits game.FramePhase for every phase and
+ * game.Hitch for slow frames (see GameEvents).
+ */
+public final class FrameStats {
+
+    // ------------------ PHASES ------------------
+
+    /** Phases of MainGame.render, in order. */
+    public static final int CLEAR = 0, UPDATE = 1, CAMERA = 2, MAP = 3, SPRITES = 4, HUD = 5;
+
+    /** Number of phases. */
+    public static final int PHASES = 6;
+
+    /** Display name of each phase. */
+    public static final String[] PHASE_NAMES = {"clear", "update", "camera", "map", "sprites", "hud"};
+
+    // ------------------ WINDOWS ------------------
+
+    /** Frames the phase averages are taken over (2 seconds at 60 FPS). */
+    public static final int AVERAGE_FRAMES = 120;
+
+    /** Frames the 1% / 0.1% lows are taken over (0.1% of these is 2 frames). */
+    public static final int LOW_FRAMES = 2048;
+
+    /** Width of a frame-time bucket for the lows (0.1 ms). */
+    public static final long LOW_BUCKET_NANOS = 100_000L;
+
+    /** Frame times at or above this land in the last bucket (250 ms). */
+    private static final int LOW_BUCKETS = 2500;
+
+    // ------------------ STATE ------------------
+
+    /** Phase times of the frame in progress. */
+    private final long[] current = new long[PHASES];
+
+    /** Last AVERAGE_FRAMES phase times per phase ([phase][frame]), and their sums. */
+    private final long[][] phaseHistory = new long[PHASES][AVERAGE_FRAMES];
+    private final long[] phaseSum = new long[PHASES];
+
+    /** Last AVERAGE_FRAMES tick times, and their sum. */
+    private final long[] tickHistory = new long[AVERAGE_FRAMES];
+    private long tickSum;
+    private int tickIndex, tickCount;
+
+    /** Last AVERAGE_FRAMES frame intervals, and their sum. */
+    private final long[] frameHistory = new long[AVERAGE_FRAMES];
+    private long frameSum;
+
+    /** Next slot in the AVERAGE_FRAMES rings, and how many are filled. */
+    private int averageIndex, averageCount;
+
+    /** Bucket of each of the last LOW_FRAMES frame intervals, and how many frames are in each bucket. */
+    private final short[] lowRing = new short[LOW_FRAMES];
+    private final int[] lowBuckets = new int[LOW_BUCKETS];
+    private int lowIndex, lowCount;
+
+    /** When the current frame started and the previous one started (0 = none yet). */
+    private long frameStart, previousFrameStart;
+
+    /** End of the last phase (start of the next). */
+    private long phaseStart;
+
+    /** Every frame interval, phase time and tick time since resetHistograms(). */
+    private final FrameTimeHistogram frameHistogram = new FrameTimeHistogram();
+    private final FrameTimeHistogram[] phaseHistograms = new FrameTimeHistogram[PHASES];
+    private final FrameTimeHistogram tickHistogram = new FrameTimeHistogram();
+
+    /** Frames started so far (the "frame" field of the JFR events). */
+    private long frameNumber;
+
+    // ------------------ JFR EVENTS ------------------
+
+    /** Reused flight recorder events (see GameEvents); only touched when a recording wants them. */
+    private final GameEvents.FramePhase phaseEvent = new GameEvents.FramePhase();
+    private final GameEvents.Hitch hitchEvent = new GameEvents.Hitch();
+
+    /** True while phaseEvent / hitchEvent have been begun and not yet committed. */
+    private boolean phaseEventOpen, hitchEventOpen;
+
+    public FrameStats() {
+        for (int p = 0; p < PHASES; p++) phaseHistograms[p] = new FrameTimeHistogram();
+    }
+
+    // ------------------ PER FRAME ------------------
+
+    /** Starts timing a frame. */
+    public void startFrame() {
+        // The previous frame's hitch event ends now, so it covers vsync and anything between frames.
+        if (hitchEventOpen) {
+            GameEvents.Hitch e = hitchEvent;
+            e.end();
+            if (e.shouldCommit()) {
+                e.clear = current[CLEAR];
+                e.update = current[UPDATE];
+                e.camera = current[CAMERA];
+                e.map = current[MAP];
+                e.sprites = current[SPRITES];
+                e.hud = current[HUD];
+                e.commit();
+            }
+        }
+
+        previousFrameStart = frameStart;
+        frameStart = phaseStart = TimeUtils.nanoTime();
+        for (int p = 0; p < PHASES; p++) current[p] = 0;
+
+        hitchEventOpen = hitchEvent.isEnabled();
+        if (hitchEventOpen) {
+            hitchEvent.begin();
+            hitchEvent.frame = frameNumber;
+        }
+        phaseEventOpen = phaseEvent.isEnabled();
+        if (phaseEventOpen) phaseEvent.begin();
+        frameNumber++;
+    }
+
+    /** Ends a phase: the time since the previous phase ended (or the frame started) is added to it. */
+    public void endPhase(int phase) {
+        long now = TimeUtils.nanoTime();
+        current[phase] += now - phaseStart;
+        phaseStart = now;
+
+        if (phaseEventOpen) {
+            phaseEvent.end();
+            phaseEvent.phase = PHASE_NAMES[phase];
+            phaseEvent.frame = frameNumber - 1;
+            phaseEvent.commit();
+            phaseEvent.begin();
+        }
+    }
+
+    /** Ends the frame, adding its phase times and its interval to the rolling windows. */
+    public void endFrame() {
+        phaseEventOpen = false;
+
+        for (int p = 0; p < PHASES; p++) {
+            phaseSum[p] += current[p] - phaseHistory[p][averageIndex];
+            phaseHistory[p][averageIndex] = current[p];
+            phaseHistograms[p].record(current[p]);
+        }
+        // The interval to the previous frame is only known from the second frame on.
+        long interval = (previousFrameStart == 0) ? 0 : frameStart - previousFrameStart;
+        frameSum += interval - frameHistory[averageIndex];
+        frameHistory[averageIndex] = interval;
+        averageIndex = (averageIndex + 1) % AVERAGE_FRAMES;
+        if (averageCount < AVERAGE_FRAMES) averageCount++;
+
+        if (interval > 0) {
+            addLow(interval);
+            frameHistogram.record(interval);
+        }
+    }
+
+    /** Records how long one simulation tick took (on whichever thread ran it). */
+    public void recordTick(long nanos) {
+        tickSum += nanos - tickHistory[tickIndex];
+        tickHistory[tickIndex] = nanos;
+        tickIndex = (tickIndex + 1) % AVERAGE_FRAMES;
+        if (tickCount < AVERAGE_FRAMES) tickCount++;
+        tickHistogram.record(nanos);
+    }
+
+    private void addLow(long interval) {
+        int bucket = (int) Math.min(interval / LOW_BUCKET_NANOS, LOW_BUCKETS - 1);
+        if (lowCount == LOW_FRAMES) lowBuckets[lowRing[lowIndex]]--; // Oldest frame leaves the window.
+        else lowCount++;
+        lowRing[lowIndex] = (short) bucket;
+        lowBuckets[bucket]++;
+        lowIndex = (lowIndex + 1) % LOW_FRAMES;
+    }
+
+    // ------------------ RESULTS ------------------
+
+    /** Every time between frames since the start or resetHistograms(). */
+    public FrameTimeHistogram getFrameHistogram() {
+        return frameHistogram;
+    }
+
+    /** Every CPU time of one phase since the start or resetHistograms(). */
+    public FrameTimeHistogram getPhaseHistogram(int phase) {
+        return phaseHistograms[phase];
+    }
+
+    /** Every simulation tick time since the start or resetHistograms(). */
+    public FrameTimeHistogram getTickHistogram() {
+        return tickHistogram;
+    }
+
+    /** Starts the histograms over (e.g. after loading, or after writing a report). */
+    public void resetHistograms() {
+        frameHistogram.reset();
+        tickHistogram.reset();
+        for (int p = 0; p < PHASES; p++) phaseHistograms[p].reset();
+    }
+
+    /** Average CPU time of a phase over recent frames, in nanoseconds. */
+    public long getPhaseNanos(int phase) {
+        return averageCount == 0 ? 0 : phaseSum[phase] / averageCount;
+    }
+
+    /** Average time of one simulation tick, in nanoseconds. */
+    public long getTickNanos() {
+        return tickCount == 0 ? 0 : tickSum / tickCount;
+    }
+
+    /** Average time between frames, in nanoseconds. */
+    public long getFrameNanos() {
+        return averageCount == 0 ? 0 : frameSum / averageCount;
+    }
+
+    /**
+     * Frame time that the given fraction of recent frames stay under, in nanoseconds
+     * (upper edge of its LOW_BUCKET_NANOS bucket). E.g. 0.99 gives the "1% low".
+     */
+    public long getFrameNanosAt(double fraction) {
+        if (lowCount == 0) return 0;
+        // Walk down from the slowest bucket until the frames above the cut are used up.
+        int slower = (int) Math.floor(lowCount * (1 - fraction));
+        for (int b = LOW_BUCKETS - 1; b > 0; b--) {
+            slower -= lowBuckets[b];
+            if (slower < 0) return (b + 1) * LOW_BUCKET_NANOS;
+        }
+        return LOW_BUCKET_NANOS;
+    }
+}
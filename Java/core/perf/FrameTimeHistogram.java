@@ -0,0 +1,110 @@
+package core.perf;
+
+import java.util.Arrays;
+
+/**
+ * FrameTimeHistogram counts durations (frame times, phase times, tick times) in
+ * buckets that get wider as the values grow, like HdrHistogram:
+ *  - below 128 ns every nanosecond has its own bucket
+ *  - above that, each power of two (128-255 ns, 256-511 ns, ...) is split into
+ *    SUB_BUCKETS equal buckets, so any value is known to within 1/SUB_BUCKETS (~1.6%)
+ *
+ * That keeps detail for phases of a few microseconds and still tracks a 5-second freeze,
+ * in one fixed array: record() is a few shifts and an increment, no allocation,
+ * so every frame of a session can be kept (unlike FrameStats' rolling windows).
+ *
+ * Percentiles are reported as the top of the value's bucket (never below the
+ * real value), capped at the largest value recorded.
+ */
+public final class FrameTimeHistogram {
+
+    // ------------------ LAYOUT ------------------
+
+    /** Values below this many nanoseconds get one bucket each. */
+    private static final int LINEAR_LIMIT = 128;
+
+    /** Buckets each power of two above LINEAR_LIMIT is split into. */
+    private static final int SUB_BUCKETS = LINEAR_LIMIT / 2;
+
+    /** log2(LINEAR_LIMIT) and log2(SUB_BUCKETS). */
+    private static final int LINEAR_BITS = 7, SUB_BITS = 6;
+
+    /** Values from 2^MAX_BITS nanoseconds (~69 s) up all land in the last bucket. */
+    private static final int MAX_BITS = 36;
+
+    private static final int BUCKETS = LINEAR_LIMIT + (MAX_BITS - LINEAR_BITS) * SUB_BUCKETS;
+
+    // ------------------ STATE ------------------
+
+    private final long[] counts = new long[BUCKETS];
+
+    /** Values recorded, their sum and the largest, in nanoseconds. */
+    private long count, sumNanos, maxNanos;
+
+    // ------------------ RECORDING ------------------
+
+    /** Counts one duration in nanoseconds; negative values count as 0. */
+    public void record(long nanos) {
+        if (nanos < 0) nanos = 0;
+        counts[bucketOf(nanos)]++;
+        count++;
+        sumNanos += nanos;
+        if (nanos > maxNanos) maxNanos = nanos;
+    }
+
+    /** Forgets everything recorded. */
+    public void reset() {
+        Arrays.fill(counts, 0);
+        count = sumNanos = maxNanos = 0;
+    }
+
+    /** Bucket index of a value in nanoseconds. */
+    private static int bucketOf(long nanos) {
+        if (nanos < LINEAR_LIMIT) return (int) nanos;
+        int bits = 63 - Long.numberOfLeadingZeros(nanos); // nanos is in [2^bits, 2^(bits+1))
+        if (bits >= MAX_BITS) return BUCKETS - 1;
+        int shift = bits - SUB_BITS;                       // nanos >> shift is in [64, 128)
+        return LINEAR_LIMIT + (bits - LINEAR_BITS) * SUB_BUCKETS + (int) (nanos >> shift) - SUB_BUCKETS;
+    }
+
+    /** Largest value in nanoseconds that lands in a bucket. */
+    private static long topOf(int bucket) {
+        if (bucket < LINEAR_LIMIT) return bucket;
+        int j = bucket - LINEAR_LIMIT;
+        int shift = j / SUB_BUCKETS + LINEAR_BITS - SUB_BITS;
+        long bottom = (long) (j % SUB_BUCKETS + SUB_BUCKETS) << shift;
+        return bottom + (1L << shift) - 1;
+    }
+
+    // ------------------ RESULTS ------------------
+
+    /** Number of values recorded. */
+    public long getCount() {
+        return count;
+    }
+
+    /** Average value in nanoseconds (0 if nothing was recorded). */
+    public long getMeanNanos() {
+        return count == 0 ? 0 : sumNanos / count;
+    }
+
+    /** Largest value recorded, in nanoseconds. */
+    public long getMaxNanos() {
+        return maxNanos;
+    }
+
+    /**
+     * Value that the given percentage of recorded values are at or below, in
+     * nanoseconds, e.g. 99.9 for the slowest 0.1%. 0 if nothing was recorded.
+     */
+    public long getValueAtPercentile(double percentile) {
+        if (count == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(count * Math.min(percentile, 100.0) / 100.0));
+        long seen = 0;
+        for (int b = 0; b < BUCKETS; b++) {
+            seen += counts[b];
+            if (seen >= rank) return Math.min(maxNanos, topOf(b));
+        }
+        return maxNanos;
+    }
+}
@@ -0,0 +1,92 @@
+package core.perf;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+/**
+ * FrameTimeReport writes the histograms of a FrameStats to a file, so benchmark
+ * runs and player bug reports come with the same comparable numbers.
+ *
+ * For frame times (start to start, what the player sees), simulation ticks and
+ * every MainGame.render phase it writes the count, mean, p50, p90, p99, p99.9
+ * and max, in milliseconds:
+ *  - .json files: {"frame": {...}, "tick": {...}, "phases": {"clear": {...}, ...}}
+ *  - anything else: CSV, one row per metric, e.g.
+ *      metric,count,mean_ms,p50_ms,p90_ms,p99_ms,p99_9_ms,max_ms
+ *      frame,3600,16.667,16.671,16.703,17.151,33.279,41.002
+ *
+ * Writing allocates and touches the disk: call it on exit or on a key press,
+ * not every frame.
+ */
+public final class FrameTimeReport {
+
+    /** Percentiles reported for every metric, and their column/key names. */
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+    private static final String[] PERCENTILE_NAMES = {"p50_ms", "p90_ms", "p99_ms", "p99_9_ms"};
+
+    private FrameTimeReport() {
+    }
+
+    /** Writes the report as JSON if the file name ends in ".json", else as CSV; creates missing folders. */
+    public static void write(FrameStats stats, File file) throws IOException {
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null && !parent.isDirectory() && !parent.mkdirs())
+            throw new IOException("Can't create folder " + parent);
+
+        try (PrintWriter out = new PrintWriter(file, StandardCharsets.UTF_8)) {
+            if (file.getName().toLowerCase(Locale.ROOT).endsWith(".json")) writeJson(stats, out);
+            else writeCsv(stats, out);
+            if (out.checkError()) throw new IOException("Failed writing " + file);
+        }
+    }
+
+    // ------------------ CSV ------------------
+
+    private static void writeCsv(FrameStats stats, PrintWriter out) {
+        out.print("metric,count,mean_ms");
+        for (String name : PERCENTILE_NAMES) out.print("," + name);
+        out.println(",max_ms");
+
+        csvRow(out, "frame", stats.getFrameHistogram());
+        csvRow(out, "tick", stats.getTickHistogram());
+        for (int p = 0; p < FrameStats.PHASES; p++)
+            csvRow(out, FrameStats.PHASE_NAMES[p], stats.getPhaseHistogram(p));
+    }
+
+    private static void csvRow(PrintWriter out, String metric, FrameTimeHistogram h) {
+        out.print(metric + "," + h.getCount() + "," + ms(h.getMeanNanos()));
+        for (double percentile : PERCENTILES) out.print("," + ms(h.getValueAtPercentile(percentile)));
+        out.println("," + ms(h.getMaxNanos()));
+    }
+
+    // ------------------ JSON ------------------
+
+    private static void writeJson(FrameStats stats, PrintWriter out) {
+        out.println("{");
+        out.println("  \"frame\": " + jsonObject(stats.getFrameHistogram()) + ",");
+        out.println("  \"tick\": " + jsonObject(stats.getTickHistogram()) + ",");
+        out.println("  \"phases\": {");
+        for (int p = 0; p < FrameStats.PHASES; p++) {
+            out.print("    \"" + FrameStats.PHASE_NAMES[p] + "\": " + jsonObject(stats.getPhaseHistogram(p)));
+            out.println(p < FrameStats.PHASES - 1 ? "," : "");
+        }
+        out.println("  }");
+        out.println("}");
+    }
+
+    private static String jsonObject(FrameTimeHistogram h) {
+        StringBuilder s = new StringBuilder("{\"count\": ").append(h.getCount())
+                .append(", \"mean_ms\": ").append(ms(h.getMeanNanos()));
+        for (int i = 0; i < PERCENTILES.length; i++)
+            s.append(", \"").append(PERCENTILE_NAMES[i]).append("\": ").append(ms(h.getValueAtPercentile(PERCENTILES[i])));
+        return s.append(", \"max_ms\": ").append(ms(h.getMaxNanos())).append('}').toString();
+    }
+
+    /** Nanoseconds as milliseconds with 3 decimals, always with a '.' (not the locale's separator). */
+    private static String ms(long nanos) {
+        return String.format(Locale.ROOT, "%.3f", nanos / 1_000_000.0);
+    }
+}
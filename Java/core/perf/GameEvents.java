@@ -0,0 +1,147 @@
+package core.perf;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+import jdk.jfr.Timespan;
+
+/**
+ * GameEvents are the game's own Java Flight Recorder events, so a JFR recording
+ * (e.g. "gradle run -Pjfr", opened in JDK Mission Control) shows what the game
+ * was doing next to the JVM's GC, JIT and thread events:
+ *  - game.FramePhase:    each phase of MainGame.render (clear, update, camera, ...)
+ *  - game.Hitch:         a frame (start to start, vsync and GC included) over 20 ms,
+ *                        with the time of each of its phases
+ *  - game.Tick:          one simulation tick, on whichever thread ran it
+ *  - game.AssetUpdate:   one Assets.update() time slice while loading
+ *  - game.AssetLoaded:   one asset finished loading, with how long it was queued
+ *  - game.EntitySpawn / game.EntityDestroy: entities entering or leaving the world
+ *
+ * Cheap enough to leave in: without a recording, isEnabled() is false and
+ * nothing else runs. The per-frame and per-tick events are single instances
+ * reused by one thread (begin() and end() every time), so even a running
+ * recording doesn't make the frame loop allocate. Events that fire every frame
+ * or tick skip the stack trace; it would always be the same one.
+ *
+ * Thresholds (e.g. the 20 ms of game.Hitch) can be changed per recording in a
+ * .jfc settings file.
+ */
+public final class GameEvents {
+
+    private GameEvents() {
+    }
+
+    // ------------------ FRAME ------------------
+
+    @Name("game.FramePhase")
+    @StackTrace(false)
+    @Label("Frame Phase")
+    @Category({"Game", "Frame"})
+    @Description("One phase of MainGame.render")
+    public static final class FramePhase extends Event {
+        @Label("Phase")
+        public String phase;
+
+        @Label("Frame")
+        public long frame;
+    }
+
+    @Name("game.Hitch")
+    @StackTrace(false)
+    @Label("Hitch")
+    @Category({"Game", "Frame"})
+    @Description("A frame that took longer than the threshold, from its start to the next frame's start")
+    @Threshold("20 ms")
+    public static final class Hitch extends Event {
+        @Label("Frame")
+        public long frame;
+
+        @Label("Clear") @Timespan(Timespan.NANOSECONDS)
+        public long clear;
+
+        @Label("Update") @Timespan(Timespan.NANOSECONDS)
+        public long update;
+
+        @Label("Camera") @Timespan(Timespan.NANOSECONDS)
+        public long camera;
+
+        @Label("Map") @Timespan(Timespan.NANOSECONDS)
+        public long map;
+
+        @Label("Sprites") @Timespan(Timespan.NANOSECONDS)
+        public long sprites;
+
+        @Label("HUD") @Timespan(Timespan.NANOSECONDS)
+        public long hud;
+    }
+
+    // ------------------ SIMULATION ------------------
+
+    @Name("game.Tick")
+    @StackTrace(false)
+    @Label("Simulation Tick")
+    @Category({"Game", "Simulation"})
+    public static final class Tick extends Event {
+        @Label("Tick")
+        public long tick;
+
+        @Label("Entities")
+        public int entities;
+    }
+
+    @Name("game.EntitySpawn")
+    @Label("Entity Spawn")
+    @Category({"Game", "Entities"})
+    public static final class EntitySpawn extends Event {
+        @Label("Entity Id")
+        public int id;
+
+        @Label("X")
+        public float x;
+
+        @Label("Y")
+        public float y;
+    }
+
+    @Name("game.EntityDestroy")
+    @Label("Entity Destroy")
+    @Category({"Game", "Entities"})
+    public static final class EntityDestroy extends Event {
+        @Label("Entity Id")
+        public int id;
+    }
+
+    // ------------------ ASSETS ------------------
+
+    @Name("game.AssetUpdate")
+    @StackTrace(false)
+    @Label("Asset Update")
+    @Category({"Game", "Assets"})
+    @Description("One time slice of background asset loading and GPU uploads")
+    public static final class AssetUpdate extends Event {
+        @Label("Progress")
+        public float progress;
+    }
+
+    @Name("game.AssetLoaded")
+    @Label("Asset Loaded")
+    @Category({"Game", "Assets"})
+    public static final class AssetLoaded extends Event {
+        @Label("Path")
+        public String path;
+
+        @Label("Type")
+        public String type;
+
+        @Label("Time Since Queued") @Timespan(Timespan.NANOSECONDS)
+        public long sinceQueued;
+
+        @Label("GPU Size") @DataAmount
+        public long bytes;
+    }
+}
@@ -0,0 +1,240 @@
+package core.perf;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.BitmapFontCache;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.profiling.GLProfiler;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.utils.BufferUtils;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.StringBuilder;
+
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+
+/**
+ * PerfHud is the performance overlay (toggle with F3, see MainGame).
+ *
+ * It shows, for recent frames:
+ *  - FPS, average frame time, and the 1% / 0.1% low frame times (FrameStats)
+ *  - CPU time of each MainGame.render phase, and of one simulation tick
+ *  - OpenGL draw calls, texture binds, shader switches and total GL calls (GLProfiler)
+ *  - render calls of the world's sprites (SpriteBatch flushes or instanced draws)
+ *    and the most sprites sent in one
+ *  - entity sprites drawn and culled as off-screen (setSpriteStats())
+ *  - Java heap in use / reserved, and native buffer memory (direct + LibGDX unsafe buffers)
+ *
+ * Keeping its own cost low:
+ *  - the GLProfiler only wraps the GL while the HUD is visible
+ *  - the text is rebuilt REFRESHES_PER_SECOND times per second into a
+ *    BitmapFontCache, with numbers appended digit by digit (no String.format);
+ *    other frames just redraw the cached glyphs
+ *  - nothing at all happens while it's hidden
+ *
+ * Text is drawn in screen pixels over the game area (resize() gives its size),
+ * so it stays sharp whatever the game's scale.
+ */
+public final class PerfHud implements Disposable {
+
+    // ------------------ SETTINGS ------------------
+
+    /** How often the numbers are updated. */
+    private static final int REFRESHES_PER_SECOND = 4;
+
+    /** Distance of the text from the top-left corner, in screen pixels. */
+    private static final float MARGIN = 6f;
+
+    private static final Color TEXT_COLOR = new Color(1f, 1f, 0.6f, 1f);
+
+    // ------------------ STATE ------------------
+
+    private final FrameStats stats;
+    private final GLProfiler profiler;
+    private final BitmapFont font;
+    private final BitmapFontCache text;
+    private final StringBuilder line = new StringBuilder(512);
+
+    /** Screen-pixel projection over the game area. */
+    private final Matrix4 projection = new Matrix4();
+    private float height;
+
+    /** Direct (NIO) buffer pool, for native memory. */
+    private final BufferPoolMXBean directBuffers;
+
+    private boolean visible;
+
+    /** Time until the next text refresh, in seconds. */
+    private float refreshIn;
+
+    /** GL and sprite counts of the last frame, read before the HUD draws itself. */
+    private int drawCalls, textureBindings, shaderSwitches, glCalls, renderCalls;
+
+    /** Most sprites in one render call since the last refresh. */
+    private int maxSpritesPerCall;
+
+    /** Entity sprites drawn and culled this frame. */
+    private int spritesDrawn, spritesCulled;
+
+    // ------------------ CONSTRUCTOR ------------------
+
+    public PerfHud(FrameStats stats) {
+        this.stats = stats;
+        this.profiler = new GLProfiler(Gdx.graphics);
+        this.font = new BitmapFont(); // LibGDX's built-in 15px font; nothing to load from assets.
+        this.font.setUseIntegerPositions(true);
+        this.text = font.newFontCache();
+        this.directBuffers = findDirectBufferPool();
+    }
+
+    private static BufferPoolMXBean findDirectBufferPool() {
+        List<BufferPoolMXBean> pools = ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class);
+        for (BufferPoolMXBean pool : pools)
+            if (pool.getName().equals("direct")) return pool;
+        return null;
+    }
+
+    // ------------------ CONTROL ------------------
+
+    /** Shows or hides the overlay. GL profiling runs only while it's shown. */
+    public void setVisible(boolean visible) {
+        if (visible == this.visible) return;
+        this.visible = visible;
+        if (visible) {
+            profiler.reset();
+            profiler.enable();
+            refreshIn = 0f;
+        } else {
+            profiler.disable();
+        }
+    }
+
+    public boolean isVisible() {
+        return visible;
+    }
+
+    /** Sets the size of the game area on screen, in pixels. */
+    public void resize(int width, int height) {
+        this.height = height;
+        projection.setToOrtho2D(0, 0, width, height);
+    }
+
+    // ------------------ PER FRAME ------------------
+
+    /**
+     * Sets this frame's sprite numbers: entities queued for drawing, entities skipped as
+     * off-screen, and the render calls that drew them and the most sprites in one call
+     * (read right after the sprites are drawn: a SpriteBatch's next begin() resets them).
+     */
+    public void setSpriteStats(int drawn, int culled, int renderCalls, int maxSpritesPerCall) {
+        spritesDrawn = drawn;
+        spritesCulled = culled;
+        this.renderCalls = renderCalls;
+        this.maxSpritesPerCall = Math.max(this.maxSpritesPerCall, maxSpritesPerCall);
+    }
+
+    /**
+     * Draws the overlay, if visible. Call last in the frame, after setSpriteStats()
+     * and outside the batch's begin()/end().
+     */
+    public void render(SpriteBatch batch, float delta) {
+        if (!visible) return;
+
+        // This frame's counts, before the HUD adds its own draw calls.
+        drawCalls = profiler.getDrawCalls();
+        textureBindings = profiler.getTextureBindings();
+        shaderSwitches = profiler.getShaderSwitches();
+        glCalls = profiler.getCalls();
+
+        refreshIn -= delta;
+        if (refreshIn <= 0f) {
+            refreshIn = 1f / REFRESHES_PER_SECOND;
+            rebuildText();
+            maxSpritesPerCall = 0;
+        }
+
+        batch.setProjectionMatrix(projection);
+        batch.begin();
+        text.draw(batch);
+        batch.end();
+
+        // Next frame's counts start after the HUD's own drawing.
+        profiler.reset();
+    }
+
+    /** Writes every line of the overlay into the font cache. */
+    private void rebuildText() {
+        StringBuilder s = line;
+        s.setLength(0);
+
+        long frame = stats.getFrameNanos();
+        s.append("FPS ").append(frame == 0 ? 0 : (int) (1_000_000_000L / frame));
+        s.append("   frame ");
+        appendMs(s, frame);
+        s.append("   1% low ");
+        appendMs(s, stats.getFrameNanosAt(0.99));
+        s.append("   0.1% low ");
+        appendMs(s, stats.getFrameNanosAt(0.999));
+        s.append(" ms\n");
+
+        for (int p = 0; p < FrameStats.PHASES; p++) {
+            if (p > 0) s.append("   ");
+            s.append(FrameStats.PHASE_NAMES[p]).append(' ');
+            appendMs(s, stats.getPhaseNanos(p));
+        }
+        s.append(" ms\nsimulation tick ");
+        appendMs(s, stats.getTickNanos());
+        s.append(" ms\n");
+
+        s.append("draw calls ").append(drawCalls)
+         .append("   texture binds ").append(textureBindings)
+         .append("   shader switches ").append(shaderSwitches)
+         .append("   GL calls ").append(glCalls).append('\n');
+        s.append("sprite render calls ").append(renderCalls)
+         .append("   max sprites/call ").append(maxSpritesPerCall)
+         .append("   sprites drawn ").append(spritesDrawn)
+         .append("   culled ").append(spritesCulled).append('\n');
+
+        Runtime runtime = Runtime.getRuntime();
+        s.append("heap ");
+        appendMb(s, runtime.totalMemory() - runtime.freeMemory());
+        s.append(" / ");
+        appendMb(s, runtime.totalMemory());
+        s.append(" MB   native buffers ");
+        appendMb(s, (directBuffers != null ? directBuffers.getMemoryUsed() : 0) + BufferUtils.getAllocatedBytesUnsafe());
+        s.append(" MB");
+
+        text.setColor(TEXT_COLOR);
+        text.setText(s, MARGIN, height - MARGIN);
+    }
+
+    // ------------------ NUMBER FORMATTING (no allocation) ------------------
+
+    /** Appends nanoseconds as milliseconds with two decimals, e.g. "16.67". */
+    private static void appendMs(StringBuilder s, long nanos) {
+        appendFixed(s, (nanos + 5_000) / 10_000);
+    }
+
+    /** Appends bytes as megabytes with two decimals. */
+    private static void appendMb(StringBuilder s, long bytes) {
+        appendFixed(s, bytes * 100 / (1024 * 1024));
+    }
+
+    /** Appends hundredths as "whole.hh". */
+    private static void appendFixed(StringBuilder s, long hundredths) {
+        s.append(hundredths / 100).append('.');
+        int fraction = (int) (hundredths % 100);
+        if (fraction < 10) s.append('0');
+        s.append(fraction);
+    }
+
+    // ------------------ CLEANUP ------------------
+
+    @Override
+    public void dispose() {
+        profiler.disable();
+        font.dispose();
+    }
+}
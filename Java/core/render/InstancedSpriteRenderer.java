@@ -0,0 +1,218 @@
+package core.render;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Mesh;
+import com.badlogic.gdx.graphics.Mesh.VertexDataType;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.VertexAttribute;
+import com.badlogic.gdx.graphics.VertexAttributes.Usage;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.graphics.glutils.ShaderProgram;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+/**
+ * InstancedSpriteRenderer draws sprites with GPU instancing (OpenGL 3.0 and up),
+ * for scenes with tens of thousands of characters.
+ *
+ * SpriteBatch writes 4 vertices (20 floats) per sprite on the CPU every frame.
+ * Here every sprite is one instance of a single shared quad: the CPU writes
+ * INSTANCE_FLOATS floats (position and size, texture coordinates, packed tint)
+ * and the vertex shader places the corners. All sprites of one texture go out in
+ * one glDrawElementsInstanced call (one call per frame with the packed atlas).
+ *
+ * Same usage as a SpriteBatch: begin(projection), draw(...) in order, end().
+ * Sprites are drawn in the order given; a texture change or a full buffer
+ * (maxInstances) sends what is queued so far. Blending is the SpriteBatch default
+ * (straight alpha).
+ *
+ * Needs Gdx.gl30 (see isSupported()); callers fall back to a SpriteBatch without
+ * it. Its shaders use GLSL 1.00 syntax, which a desktop OpenGL 3.2 core context
+ * accepts with the ShaderProgram.prependVertexCode / prependFragmentCode set by
+ * DesktopLauncher (which falls back to OpenGL 2.0 where no 3.2 core context exists).
+ */
+public final class InstancedSpriteRenderer implements Disposable {
+
+    // ------------------ LAYOUT ------------------
+
+    /** Floats per instance: x, y, width, height; u, v2, u2, v (bottom-left, top-right); packed color. */
+    public static final int INSTANCE_FLOATS = 9;
+
+    private static final String VERTEX_SHADER =
+            "attribute vec2 a_corner;\n"          // 0 or 1 per axis: which corner of the quad
+          + "attribute vec4 i_rect;\n"            // x, y, width, height
+          + "attribute vec4 i_uv;\n"              // texture coordinates of the bottom-left and top-right corners
+          + "attribute vec4 i_color;\n"
+          + "uniform mat4 u_projTrans;\n"
+          + "varying vec4 v_color;\n"
+          + "varying vec2 v_texCoords;\n"
+          + "void main() {\n"
+          + "    v_color = i_color;\n"
+          + "    v_color.a = v_color.a * (255.0 / 254.0);\n" // Same packed-alpha fix as SpriteBatch.
+          + "    v_texCoords = mix(i_uv.xy, i_uv.zw, a_corner);\n"
+          + "    gl_Position = u_projTrans * vec4(i_rect.xy + a_corner * i_rect.zw, 0.0, 1.0);\n"
+          + "}\n";
+
+    private static final String FRAGMENT_SHADER =
+            "#ifdef GL_ES\n"
+          + "precision mediump float;\n"
+          + "#endif\n"
+          + "varying vec4 v_color;\n"
+          + "varying vec2 v_texCoords;\n"
+          + "uniform sampler2D u_texture;\n"
+          + "void main() {\n"
+          + "    gl_FragColor = v_color * texture2D(u_texture, v_texCoords);\n"
+          + "}\n";
+
+    // ------------------ STATE ------------------
+
+    /** The shared quad (4 corners, 6 indices) plus the per-instance buffer. */
+    private final Mesh mesh;
+
+    /**
+     * Vertex array object bound around every draw. A core profile rejects attribute calls
+     * with no VAO bound, and a VertexBufferObjectWithVAO mesh unbinds its own VAO before
+     * the instance buffer disables its attributes; so the mesh uses plain buffers and
+     * everything it binds and unbinds happens inside this VAO.
+     */
+    private final int vao;
+    private final ShaderProgram shader;
+
+    /** Instances queued since the last flush. */
+    private final float[] instances;
+    private final int maxInstances;
+    private int count;
+
+    /** Texture of the queued instances, or null if none are queued. */
+    private Texture texture;
+
+    /** Tint of the next draws, packed like SpriteBatch colors. */
+    private float packedColor = Color.WHITE_FLOAT_BITS;
+
+    private boolean drawing;
+
+    /** Instanced draw calls, and most instances in one call, since the last begin(). */
+    public int renderCalls;
+    public int maxInstancesInCall;
+
+    // ------------------ CONSTRUCTOR ------------------
+
+    /** True if this renderer can run here (an OpenGL 3.0+ / GLES 3.0+ context). */
+    public static boolean isSupported() {
+        return Gdx.gl30 != null;
+    }
+
+    /** @param maxInstances sprites sent per draw call at most (more are split into several calls) */
+    public InstancedSpriteRenderer(int maxInstances) {
+        if (!isSupported()) throw new GdxRuntimeException("Instanced sprites need OpenGL 3.0 (Gdx.gl30)");
+        this.maxInstances = maxInstances;
+        this.instances = new float[maxInstances * INSTANCE_FLOATS];
+
+        mesh = new Mesh(VertexDataType.VertexBufferObject, true, 4, 6, new VertexAttribute(Usage.Position, 2, "a_corner"));
+        mesh.setVertices(new float[] {0, 0, 1, 0, 1, 1, 0, 1});
+        mesh.setIndices(new short[] {0, 1, 2, 2, 3, 0});
+        mesh.enableInstancedRendering(false, maxInstances,
+                new VertexAttribute(Usage.Generic, 4, "i_rect"),
+                new VertexAttribute(Usage.Generic, 4, "i_uv"),
+                new VertexAttribute(Usage.ColorPacked, 4, GL20.GL_UNSIGNED_BYTE, true, "i_color"));
+
+        int[] handle = new int[1];
+        Gdx.gl30.glGenVertexArrays(1, handle, 0);
+        vao = handle[0];
+
+        shader = new ShaderProgram(VERTEX_SHADER, FRAGMENT_SHADER);
+        if (!shader.isCompiled()) throw new GdxRuntimeException("Instanced sprite shader: " + shader.getLog());
+    }
+
+    // ------------------ DRAWING ------------------
+
+    /** Starts a run of draws with the given projection (e.g. camera.combined). */
+    public void begin(Matrix4 projection) {
+        if (drawing) throw new IllegalStateException("end() must be called before begin()");
+        drawing = true;
+        renderCalls = 0;
+        maxInstancesInCall = 0;
+
+        Gdx.gl.glDepthMask(false);
+        Gdx.gl.glEnable(GL20.GL_BLEND);
+        Gdx.gl.glBlendFunc(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA);
+        shader.bind();
+        shader.setUniformMatrix("u_projTrans", projection);
+        shader.setUniformi("u_texture", 0);
+    }
+
+    /** Sets the tint of the following draws (white = untinted). */
+    public void setColor(Color color) {
+        packedColor = color.toFloatBits();
+    }
+
+    /** Queues a region drawn at (x, y) (bottom-left corner), width x height world units. */
+    public void draw(TextureRegion region, float x, float y, float width, float height) {
+        draw(region, x, y, width, height, false);
+    }
+
+    /** Like draw(region, x, y, width, height), mirrored left-right if flipX. */
+    public void draw(TextureRegion region, float x, float y, float width, float height, boolean flipX) {
+        if (!drawing) throw new IllegalStateException("begin() must be called before draw()");
+        Texture regionTexture = region.getTexture();
+        if (regionTexture != texture) {
+            flush();
+            texture = regionTexture;
+        } else if (count == maxInstances) {
+            flush();
+        }
+
+        float u = region.getU(), u2 = region.getU2();
+        if (flipX) {
+            float t = u;
+            u = u2;
+            u2 = t;
+        }
+        float[] data = instances;
+        int i = count++ * INSTANCE_FLOATS;
+        data[i] = x;
+        data[i + 1] = y;
+        data[i + 2] = width;
+        data[i + 3] = height;
+        data[i + 4] = u;
+        data[i + 5] = region.getV2(); // Bottom edge: like SpriteBatch, v2 is the region's bottom.
+        data[i + 6] = u2;
+        data[i + 7] = region.getV();
+        data[i + 8] = packedColor;
+    }
+
+    /** Draws everything queued and ends the run. */
+    public void end() {
+        if (!drawing) throw new IllegalStateException("begin() must be called before end()");
+        flush();
+        drawing = false;
+        texture = null;
+        Gdx.gl.glDepthMask(true);
+        Gdx.gl.glDisable(GL20.GL_BLEND);
+    }
+
+    /** Uploads the queued instances and draws them in one instanced call. */
+    private void flush() {
+        if (count == 0) return;
+        mesh.setInstanceData(instances, 0, count * INSTANCE_FLOATS);
+        texture.bind(0);
+        Gdx.gl30.glBindVertexArray(vao);
+        mesh.render(shader, GL20.GL_TRIANGLES); // Binds, draws and unbinds the buffers, all inside the VAO.
+        Gdx.gl30.glBindVertexArray(0);
+        renderCalls++;
+        maxInstancesInCall = Math.max(maxInstancesInCall, count);
+        count = 0;
+    }
+
+    // ------------------ CLEANUP ------------------
+
+    @Override
+    public void dispose() {
+        mesh.dispose();
+        Gdx.gl30.glDeleteVertexArrays(1, new int[] {vao}, 0);
+        shader.dispose();
+    }
+}
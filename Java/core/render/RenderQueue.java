@@ -0,0 +1,251 @@
+package core.render;
+
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.utils.ObjectIntMap;
+
+import java.util.Arrays;
+
+/**
+ * RenderQueue collects a frame's sprites, puts them in drawing order, and draws them.
+ *
+ * A top-down scene has to be drawn back to front: a character standing lower on
+ * the screen is nearer the viewer and must cover the ones above it. Instead of
+ * drawing in whatever order code runs, callers submit() draw commands and
+ * draw() sorts them by one 64-bit key per command:
+ *
+ *   bits 56-63  layer          lower layers first (e.g. shadows under characters)
+ *   bits 32-55  Y, inverted    within a layer, higher on screen first (behind)
+ *   bits 16-31  texture id     on the same row, sprites of one texture together
+ *   bits  0-15  (unused)
+ *
+ * so SpriteBatch only has to switch textures where the order really requires it.
+ * Sprites with equal keys keep their submission order.
+ *
+ * The sort is an LSD radix sort, one byte per pass: eight counting passes over
+ * primitive arrays, no Comparator, no boxing, no garbage. Bytes that are the same
+ * for every command (the unused bits, a single layer, ...) are skipped, so it
+ * usually takes 4-5 passes. All arrays are reused and only grow (by doubling).
+ *
+ * Render thread only. Positions are in world units; Y is compared in whole
+ * units (sprites are drawn at whole pixels anyway), from -2^23 to 2^23 - 1.
+ */
+public final class RenderQueue {
+
+    // ------------------ KEY LAYOUT ------------------
+
+    /** Number of layers (0 to LAYERS - 1). */
+    public static final int LAYERS = 256;
+
+    /** Distinct textures a frame can draw from before ids are shared (sorting stays correct, grouping less so). */
+    public static final int MAX_TEXTURES = 1 << 16;
+
+    private static final int LAYER_SHIFT = 56, Y_SHIFT = 32, TEXTURE_SHIFT = 16;
+    private static final int Y_BIAS = 1 << 23, Y_MASK = (1 << 24) - 1;
+
+    /** Bytes in a key, and values of one byte. */
+    private static final int PASSES = 8, RADIX = 256;
+
+    // ------------------ COMMANDS ------------------
+
+    /** Number of commands submitted since the last draw() or clear(). */
+    private int count;
+
+    /** Per command: sort key, what to draw and where. */
+    private long[] keys;
+    private TextureRegion[] regions;
+    private float[] x, y, width, height;
+
+    /** Radix sort buffers: keys and command indices, ping-ponged between A and B each pass. */
+    private long[] keysA, keysB;
+    private int[] orderA, orderB;
+
+    /** Command indices in drawing order, after sort() (one of orderA / orderB). */
+    private int[] order;
+
+    /** Counts of every byte value, per pass. */
+    private final int[][] histograms = new int[PASSES][RADIX];
+
+    // ------------------ TEXTURE IDS ------------------
+
+    /**
+     * Small id of every texture queued since the last clear(), for the key. Forgotten on
+     * clear() so textures disposed since (e.g. evicted sprite sets) aren't kept alive.
+     */
+    private final ObjectIntMap<Texture> textureIds = new ObjectIntMap<>();
+    private int nextTextureId;
+
+    // ------------------ CONSTRUCTOR ------------------
+
+    public RenderQueue(int initialCapacity) {
+        allocate(Math.max(16, initialCapacity));
+    }
+
+    private void allocate(int capacity) {
+        keys = grow(keys, capacity);
+        keysA = new long[capacity];
+        keysB = new long[capacity];
+        orderA = order = new int[capacity];
+        orderB = new int[capacity];
+        TextureRegion[] oldRegions = regions;
+        regions = new TextureRegion[capacity];
+        if (oldRegions != null) System.arraycopy(oldRegions, 0, regions, 0, count);
+        x = grow(x, capacity);
+        y = grow(y, capacity);
+        width = grow(width, capacity);
+        height = grow(height, capacity);
+    }
+
+    private long[] grow(long[] old, int capacity) {
+        long[] a = new long[capacity];
+        if (old != null) System.arraycopy(old, 0, a, 0, count);
+        return a;
+    }
+
+    private float[] grow(float[] old, int capacity) {
+        float[] a = new float[capacity];
+        if (old != null) System.arraycopy(old, 0, a, 0, count);
+        return a;
+    }
+
+    // ------------------ SUBMIT ------------------
+
+    /**
+     * Queues a region to draw at (drawX, drawY) (its bottom-left corner), drawW x drawH
+     * world units, on a layer from 0 to LAYERS - 1. Its bottom edge decides the order within the layer.
+     */
+    public void submit(int layer, TextureRegion region, float drawX, float drawY, float drawW, float drawH) {
+        if (layer < 0 || layer >= LAYERS) throw new IllegalArgumentException("Layer out of range: " + layer);
+        if (count == keys.length) allocate(count * 2);
+
+        int i = count++;
+        keys[i] = keyOf(layer, drawY, textureId(region.getTexture()));
+        regions[i] = region;
+        x[i] = drawX;
+        y[i] = drawY;
+        width[i] = drawW;
+        height[i] = drawH;
+    }
+
+    /** Packs layer, inverted Y and texture id into a key (see the class comment). */
+    private static long keyOf(int layer, float drawY, int textureId) {
+        int row = Math.round(drawY) + Y_BIAS;
+        row = Math.max(0, Math.min(Y_MASK, row));
+        return ((long) layer << LAYER_SHIFT)
+                | ((long) (Y_MASK - row) << Y_SHIFT)  // Higher Y -> smaller key -> drawn earlier.
+                | ((long) textureId << TEXTURE_SHIFT);
+    }
+
+    /** Id of a texture, assigning the next free one the first time it's seen. */
+    private int textureId(Texture texture) {
+        int id = textureIds.get(texture, -1);
+        if (id >= 0) return id;
+        id = nextTextureId;
+        nextTextureId = (nextTextureId + 1) % MAX_TEXTURES;
+        textureIds.put(texture, id);
+        return id;
+    }
+
+    /** Number of commands queued. */
+    public int size() {
+        return count;
+    }
+
+    // ------------------ SORT ------------------
+
+    /** Puts the queued commands in drawing order (see getOrder()). */
+    public void sort() {
+        int n = count;
+        long[] k = keys;
+
+        // One read of the keys counts the bytes of every pass at once.
+        for (int[] h : histograms) Arrays.fill(h, 0);
+        for (int i = 0; i < n; i++) {
+            long key = k[i];
+            for (int p = 0; p < PASSES; p++)
+                histograms[p][(int) (key >>> (p * 8)) & 0xFF]++;
+        }
+
+        // The first pass that runs reads the keys in submission order; later ones ping-pong A/B.
+        long[] srcKeys = k;
+        int[] srcOrder = null; // null = identity (command i at position i)
+        boolean intoA = true;
+        for (int p = 0; p < PASSES; p++) {
+            int[] h = histograms[p];
+            int shift = p * 8;
+            // Every key has the same byte here: this pass wouldn't move anything.
+            if (n == 0 || h[(int) (k[0] >>> shift) & 0xFF] == n) continue;
+
+            // Counts -> first slot of each byte value.
+            int sum = 0;
+            for (int b = 0; b < RADIX; b++) {
+                int c = h[b];
+                h[b] = sum;
+                sum += c;
+            }
+            // Stable scatter by this byte.
+            long[] dstKeys = intoA ? keysA : keysB;
+            int[] dstOrder = intoA ? orderA : orderB;
+            for (int i = 0; i < n; i++) {
+                long key = srcKeys[i];
+                int slot = h[(int) (key >>> shift) & 0xFF]++;
+                dstKeys[slot] = key;
+                dstOrder[slot] = (srcOrder == null) ? i : srcOrder[i];
+            }
+            srcKeys = dstKeys;
+            srcOrder = dstOrder;
+            intoA = !intoA;
+        }
+
+        if (srcOrder == null) {
+            for (int i = 0; i < n; i++) orderA[i] = i;
+            srcOrder = orderA;
+        }
+        order = srcOrder;
+    }
+
+    /**
+     * Command indices in drawing order, valid after sort() (entries 0 to size() - 1).
+     * Exposed for tools and benchmarks; draw() is what the game uses.
+     */
+    public int[] getOrder() {
+        return order;
+    }
+
+    // ------------------ DRAW ------------------
+
+    /** Sorts the queued commands, draws them with the batch (between begin() and end()), and clears the queue. */
+    public void draw(Batch batch) {
+        if (count > 0) {
+            sort();
+            int[] o = order;
+            for (int i = 0; i < count; i++) {
+                int c = o[i];
+                batch.draw(regions[c], x[c], y[c], width[c], height[c]);
+            }
+        }
+        clear();
+    }
+
+    /** Like draw(batch), with GPU instancing (between the renderer's begin() and end()). */
+    public void draw(InstancedSpriteRenderer renderer) {
+        if (count > 0) {
+            sort();
+            int[] o = order;
+            for (int i = 0; i < count; i++) {
+                int c = o[i];
+                renderer.draw(regions[c], x[c], y[c], width[c], height[c]);
+            }
+        }
+        clear();
+    }
+
+    /** Drops every queued command (and its region and texture references). */
+    public void clear() {
+        for (int i = 0; i < count; i++) regions[i] = null;
+        count = 0;
+        textureIds.clear();
+        nextTextureId = 0;
+    }
+}
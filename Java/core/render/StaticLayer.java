@@ -0,0 +1,363 @@
+package core.render;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Mesh;
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.VertexAttribute;
+import com.badlogic.gdx.graphics.VertexAttributes.Usage;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.graphics.glutils.ShaderProgram;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.FloatArray;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.LongMap;
+
+/**
+ * StaticLayer draws sprites that never move (trees, fences, ground decor placed
+ * anywhere, not only on the tile grid) from vertices built once on the GPU.
+ *
+ * Drawn through a SpriteBatch, every such sprite would cost 20 floats of CPU
+ * vertex work and an upload every frame, forever. Here the world is split into
+ * CELL_SIZE x CELL_SIZE cells, each baked into its own static Mesh like a map
+ * chunk (see ChunkMesh): a cell's vertices are written once, and every frame it
+ * is drawn with one draw call per texture (one in all, with a packed atlas).
+ * Every cell is drawn with the layer's one shader, so rebuilding a cell only
+ * uploads vertices; it never compiles anything.
+ *
+ * Changing the layer (add(), remove(), removeArea()) only marks the cells it
+ * touches as dirty; render() rebuilds those, and only when they are on screen.
+ * Everything else stays as uploaded. A cell's sprites are drawn back to front
+ * (higher Y first, see RenderQueue), so overlapping decorations look right.
+ *
+ * A layer is drawn as a whole, so it can't be interleaved with moving sprites:
+ * use one under the characters (ground decor, tree trunks' shadows, ...) and,
+ * if needed, another drawn after them (tree tops). Things characters must walk
+ * both in front of and behind belong in the RenderQueue.
+ *
+ * A sprite belongs to the cell holding its bottom-left corner. Call render() outside
+ * SpriteBatch begin()/end(); when no cell is dirty it does not allocate. Render
+ * thread only.
+ */
+public final class StaticLayer implements Disposable {
+
+    // ------------------ TUNING ------------------
+
+    /** Side length of a cell, in world units. Smaller cells rebuild faster; bigger ones take fewer draw calls. */
+    public static final int CELL_SIZE = 256;
+
+    /** Most sprites one cell can hold (their 4 vertices each must fit the mesh's 16-bit indices). */
+    public static final int MAX_SPRITES_PER_CELL = 16383;
+
+    // ------------------ VERTEX LAYOUT ------------------
+
+    /** Floats per vertex: x, y, packed color, u, v (the SpriteBatch layout). */
+    private static final int VERTEX_FLOATS = 5;
+
+    /** Index pattern shared by every cell mesh: two triangles per quad. */
+    private static final short[] INDICES = new short[MAX_SPRITES_PER_CELL * 6];
+    static {
+        for (int q = 0, v = 0, i = 0; q < MAX_SPRITES_PER_CELL; q++, v += 4) {
+            INDICES[i++] = (short) v;
+            INDICES[i++] = (short) (v + 1);
+            INDICES[i++] = (short) (v + 2);
+            INDICES[i++] = (short) (v + 2);
+            INDICES[i++] = (short) (v + 3);
+            INDICES[i++] = (short) v;
+        }
+    }
+
+    // ------------------ STATE ------------------
+
+    /** One cell of the layer: its sprites, and the mesh they are baked into. */
+    private static final class Cell {
+        final int cx, cy;
+
+        /** Per sprite: region, and x, y, width, height (4 floats). */
+        final Array<TextureRegion> regions = new Array<>();
+        final FloatArray bounds = new FloatArray();
+
+        /** Baked vertices, or null if never built (or emptied). Holds up to "capacity" sprites. */
+        Mesh mesh;
+        int capacity;
+
+        /** Runs of consecutive sprites with the same texture, in drawing order: texture and index count. */
+        final Array<Texture> runTextures = new Array<>(4);
+        final IntArray runCounts = new IntArray(4);
+
+        /** True if the sprites changed since the mesh was built. */
+        boolean dirty;
+
+        Cell(int cx, int cy) {
+            this.cx = cx;
+            this.cy = cy;
+        }
+    }
+
+    /** The standard SpriteBatch shader (position, packed color, one texture), for every cell. */
+    private final ShaderProgram shader = SpriteBatch.createDefaultShader();
+
+    /** Cells by key (see key()), plus the same cells as a list for iterator-free walks. */
+    private final LongMap<Cell> cells = new LongMap<>();
+    private final Array<Cell> cellList = new Array<>(false, 16);
+
+    /** Puts a cell's sprites in drawing order when it is rebuilt. */
+    private final RenderQueue order = new RenderQueue(256);
+
+    /** Vertex scratch space for rebuilds; grows to the biggest cell. */
+    private float[] vertices = new float[16 * 4 * VERTEX_FLOATS];
+
+    /** Largest sprite added so far: how far a cell's sprites can reach into the cells above and to its right. */
+    private float maxWidth, maxHeight;
+
+    /** Total sprites in the layer. */
+    private int spriteCount;
+
+    /** Cells drawn and rebuilt by the last render() call. */
+    private int drawnCells, rebuiltCells;
+
+    // ------------------ EDITING ------------------
+
+    /** Adds a region drawn at (x, y) (its bottom-left corner), at its own size in world units. */
+    public void add(TextureRegion region, float x, float y) {
+        add(region, x, y, region.getRegionWidth(), region.getRegionHeight());
+    }
+
+    /** Adds a region drawn at (x, y) (its bottom-left corner), width x height world units. */
+    public void add(TextureRegion region, float x, float y, float width, float height) {
+        int cx = cellOf(x), cy = cellOf(y);
+        long key = key(cx, cy);
+        Cell cell = cells.get(key);
+        if (cell == null) {
+            cell = new Cell(cx, cy);
+            cells.put(key, cell);
+            cellList.add(cell);
+        }
+        if (cell.regions.size == MAX_SPRITES_PER_CELL)
+            throw new IllegalStateException("More than " + MAX_SPRITES_PER_CELL + " sprites in cell " + cx + "," + cy);
+
+        cell.regions.add(region);
+        cell.bounds.add(x, y, width, height);
+        cell.dirty = true;
+        spriteCount++;
+        maxWidth = Math.max(maxWidth, width);
+        maxHeight = Math.max(maxHeight, height);
+    }
+
+    /** Removes one sprite of "region" placed at exactly (x, y). Returns false if there is none. */
+    public boolean remove(TextureRegion region, float x, float y) {
+        Cell cell = cells.get(key(cellOf(x), cellOf(y)));
+        if (cell == null) return false;
+        float[] b = cell.bounds.items;
+        for (int i = 0; i < cell.regions.size; i++) {
+            if (cell.regions.get(i) == region && b[i * 4] == x && b[i * 4 + 1] == y) {
+                removeSprite(cell, i);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Removes every sprite whose bottom-left corner is inside the rectangle (e.g. a
+     * part of the map that was rewritten) and returns how many were removed.
+     */
+    public int removeArea(float x, float y, float width, float height) {
+        int removed = 0;
+        for (int cy = cellOf(y); cy <= cellOf(y + height); cy++) {
+            for (int cx = cellOf(x); cx <= cellOf(x + width); cx++) {
+                Cell cell = cells.get(key(cx, cy));
+                if (cell == null) continue;
+                float[] b = cell.bounds.items;
+                for (int i = cell.regions.size - 1; i >= 0; i--) {
+                    float sx = b[i * 4], sy = b[i * 4 + 1];
+                    if (sx >= x && sx <= x + width && sy >= y && sy <= y + height) {
+                        removeSprite(cell, i);
+                        removed++;
+                    }
+                }
+            }
+        }
+        return removed;
+    }
+
+    private void removeSprite(Cell cell, int index) {
+        cell.regions.removeIndex(index);
+        cell.bounds.removeRange(index * 4, index * 4 + 3);
+        cell.dirty = true;
+        spriteCount--;
+    }
+
+    /** Removes every sprite and frees every mesh. */
+    public void clear() {
+        for (int i = 0; i < cellList.size; i++) {
+            Mesh mesh = cellList.get(i).mesh;
+            if (mesh != null) mesh.dispose();
+        }
+        cells.clear();
+        cellList.clear();
+        spriteCount = 0;
+        maxWidth = maxHeight = 0;
+    }
+
+    // ------------------ RENDER ------------------
+
+    /**
+     * Draws the cells the camera can see, first rebuilding those that changed.
+     * Blending is on while drawing (decorations have transparent pixels), off after.
+     */
+    public void render(OrthographicCamera camera) {
+        drawnCells = 0;
+        rebuiltCells = 0;
+        if (spriteCount == 0) return;
+
+        // Sprites can stick out of their cell up and to the right, so look a little further left and down.
+        float halfW = camera.viewportWidth * camera.zoom / 2f;
+        float halfH = camera.viewportHeight * camera.zoom / 2f;
+        int minCx = cellOf(camera.position.x - halfW - maxWidth);
+        int maxCx = cellOf(camera.position.x + halfW);
+        int minCy = cellOf(camera.position.y - halfH - maxHeight);
+        int maxCy = cellOf(camera.position.y + halfH);
+
+        Gdx.gl.glEnable(GL20.GL_BLEND);
+        Gdx.gl.glBlendFunc(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA);
+        shader.bind();
+        shader.setUniformMatrix("u_projTrans", camera.combined);
+        shader.setUniformi("u_texture", 0);
+
+        for (int cy = minCy; cy <= maxCy; cy++) {
+            for (int cx = minCx; cx <= maxCx; cx++) {
+                Cell cell = cells.get(key(cx, cy));
+                if (cell == null) continue;
+                if (cell.dirty) rebuild(cell);
+                if (cell.mesh == null) continue;
+
+                int offset = 0;
+                for (int r = 0; r < cell.runTextures.size; r++) {
+                    int count = cell.runCounts.get(r);
+                    cell.runTextures.get(r).bind(0);
+                    cell.mesh.render(shader, GL20.GL_TRIANGLES, offset, count);
+                    offset += count;
+                }
+                drawnCells++;
+            }
+        }
+        Gdx.gl.glDisable(GL20.GL_BLEND);
+    }
+
+    /** Bakes a cell's sprites into its mesh, back to front; an emptied cell gives its mesh up. */
+    private void rebuild(Cell cell) {
+        cell.dirty = false;
+        rebuiltCells++;
+        int n = cell.regions.size;
+        if (n == 0) {
+            if (cell.mesh != null) cell.mesh.dispose();
+            cell.mesh = null;
+            cells.remove(key(cell.cx, cell.cy));
+            cellList.removeValue(cell, true);
+            return;
+        }
+
+        // A mesh has a fixed size: reuse it if the sprites fit, else replace it with one twice as big.
+        if (cell.mesh == null || n > cell.capacity) {
+            if (cell.mesh != null) cell.mesh.dispose();
+            cell.capacity = Math.min(MAX_SPRITES_PER_CELL, Math.max(16, MathUtils.nextPowerOfTwo(n)));
+            cell.mesh = new Mesh(true, cell.capacity * 4, cell.capacity * 6,
+                    new VertexAttribute(Usage.Position, 2, ShaderProgram.POSITION_ATTRIBUTE),
+                    VertexAttribute.ColorPacked(),
+                    VertexAttribute.TexCoords(0));
+            cell.mesh.setIndices(INDICES, 0, cell.capacity * 6);
+        }
+        if (vertices.length < n * 4 * VERTEX_FLOATS) vertices = new float[cell.capacity * 4 * VERTEX_FLOATS];
+
+        float[] b = cell.bounds.items;
+        for (int i = 0; i < n; i++)
+            order.submit(0, cell.regions.get(i), b[i * 4], b[i * 4 + 1], b[i * 4 + 2], b[i * 4 + 3]);
+        order.sort();
+        int[] sorted = order.getOrder();
+
+        // One quad per sprite, in drawing order; a new run starts wherever the texture changes.
+        cell.runTextures.clear();
+        cell.runCounts.clear();
+        Texture runTexture = null;
+        int v = 0;
+        for (int i = 0; i < n; i++) {
+            int s = sorted[i];
+            TextureRegion region = cell.regions.get(s);
+            if (region.getTexture() != runTexture) {
+                runTexture = region.getTexture();
+                cell.runTextures.add(runTexture);
+                cell.runCounts.add(0);
+            }
+            cell.runCounts.items[cell.runCounts.size - 1] += 6;
+            v = quad(vertices, v, region, b[s * 4], b[s * 4 + 1], b[s * 4 + 2], b[s * 4 + 3]);
+        }
+        cell.mesh.setVertices(vertices, 0, v);
+        order.clear();
+    }
+
+    /** Writes a region's quad at "v" in the SpriteBatch corner order and returns the next free float. */
+    private static int quad(float[] out, int v, TextureRegion region, float x, float y, float width, float height) {
+        float color = Color.WHITE_FLOAT_BITS;
+        float x2 = x + width, y2 = y + height;
+        float u = region.getU(), v1 = region.getV(), u2 = region.getU2(), v2 = region.getV2();
+        v = put(out, v, x, y, color, u, v2);     // Bottom-left
+        v = put(out, v, x, y2, color, u, v1);    // Top-left
+        v = put(out, v, x2, y2, color, u2, v1);  // Top-right
+        return put(out, v, x2, y, color, u2, v2); // Bottom-right
+    }
+
+    private static int put(float[] out, int i, float x, float y, float color, float u, float v) {
+        out[i]     = x;
+        out[i + 1] = y;
+        out[i + 2] = color;
+        out[i + 3] = u;
+        out[i + 4] = v;
+        return i + VERTEX_FLOATS;
+    }
+
+    /** Cell coordinate of a world coordinate. */
+    private static int cellOf(float worldCoordinate) {
+        return MathUtils.floor(worldCoordinate / CELL_SIZE);
+    }
+
+    /** Packs cell coordinates into one long, for use as a map key. */
+    private static long key(int cx, int cy) {
+        return ((long) cx << 32) | (cy & 0xFFFFFFFFL);
+    }
+
+    // ------------------ ACCESSORS ------------------
+
+    /** Number of sprites in the layer. */
+    public int getSpriteCount() {
+        return spriteCount;
+    }
+
+    /** Number of cells holding sprites. */
+    public int getCellCount() {
+        return cellList.size;
+    }
+
+    /** Cells drawn by the last render() call (one mesh draw per texture each). */
+    public int getDrawnCellCount() {
+        return drawnCells;
+    }
+
+    /** Cells rebuilt by the last render() call because they had changed. */
+    public int getRebuiltCellCount() {
+        return rebuiltCells;
+    }
+
+    // ------------------ CLEANUP ------------------
+
+    @Override
+    public void dispose() {
+        clear();
+        shader.dispose();
+    }
+}
@@ -0,0 +1,110 @@
+package core.render;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.graphics.glutils.FrameBuffer;
+import com.badlogic.gdx.graphics.glutils.ShaderProgram;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.utils.Disposable;
+
+/**
+ * VirtualScreen is an offscreen image at the game's own resolution (e.g. 320x180)
+ * that the world is drawn into, then shown on the window in one scaled-up quad.
+ *
+ * Drawing the map and sprites straight into a window 3x or 6x bigger makes the
+ * GPU fill every screen pixel of every sprite (9x or 36x the work at 1200x720
+ * or 4K). Drawn here, every sprite costs the same whatever the window size,
+ * and only the final blit touches window pixels. "Nearest" filtering and the
+ * integer scale of MainGame.resize() keep every game pixel a sharp square.
+ *
+ * Usage, each frame:
+ *  - begin(): the frame buffer becomes the target, cleared to the background color
+ *  - draw the world with the camera as usual
+ *  - end(): back to the window
+ *  - draw(batch) inside the game area's glViewport (Viewport.apply()), outside begin()/end()
+ *
+ * setShader() runs a shader over the whole picture during draw(), the place
+ * for full-screen post-processing (color grading, palette effects, ...).
+ */
+public final class VirtualScreen implements Disposable {
+
+    private final int width, height;
+    private final FrameBuffer buffer;
+
+    /** The buffer's texture, flipped: frame buffers are stored bottom row first. */
+    private final TextureRegion image;
+
+    /** Maps the virtual resolution onto the current glViewport. */
+    private final Matrix4 projection = new Matrix4();
+
+    /** Post-processing shader for draw(), or null for the batch's own. */
+    private ShaderProgram shader;
+
+    // ------------------ CONSTRUCTOR ------------------
+
+    public VirtualScreen(int width, int height) {
+        this.width = width;
+        this.height = height;
+        buffer = new FrameBuffer(Pixmap.Format.RGBA8888, width, height, false);
+        buffer.getColorBufferTexture().setFilter(Texture.TextureFilter.Nearest, Texture.TextureFilter.Nearest);
+        image = new TextureRegion(buffer.getColorBufferTexture());
+        image.flip(false, true);
+        projection.setToOrtho2D(0, 0, width, height);
+    }
+
+    // ------------------ PER FRAME ------------------
+
+    /** Makes the frame buffer the drawing target and clears it (RGBA). */
+    public void begin(float r, float g, float b, float a) {
+        buffer.begin();
+        Gdx.gl.glClearColor(r, g, b, a);
+        Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
+    }
+
+    /** Draws to the window again (restores the full-window glViewport). */
+    public void end() {
+        buffer.end();
+    }
+
+    /**
+     * Stretches the picture over the current glViewport (the game area). Uses the batch
+     * between its own begin()/end(); blending is off, the picture is opaque.
+     */
+    public void draw(Batch batch) {
+        ShaderProgram batchShader = batch.getShader();
+        if (shader != null) batch.setShader(shader);
+        batch.setProjectionMatrix(projection);
+        batch.disableBlending();
+        batch.begin();
+        batch.draw(image, 0, 0, width, height);
+        batch.end();
+        batch.enableBlending();
+        if (shader != null) batch.setShader(batchShader);
+    }
+
+    // ------------------ SETTINGS ------------------
+
+    /** Shader used when the picture is drawn to the window; null for the batch's default. */
+    public void setShader(ShaderProgram shader) {
+        this.shader = shader;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    // ------------------ CLEANUP ------------------
+
+    @Override
+    public void dispose() {
+        buffer.dispose();
+    }
+}
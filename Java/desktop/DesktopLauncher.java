@@ -1,16 +1,83 @@
 package desktop;
 
+import com.badlogic.gdx.Gdx;                                           // Audio of a failed launch
 import com.badlogic.gdx.backends.lwjgl3.Lwjgl3Application;           // Desktop entry point using LWJGL3
 import com.badlogic.gdx.backends.lwjgl3.Lwjgl3ApplicationConfiguration; // Window/config settings for the app
+import com.badlogic.gdx.backends.lwjgl3.Lwjgl3Window;                // Passed to the window listener
+import com.badlogic.gdx.backends.lwjgl3.Lwjgl3WindowAdapter;         // Tells us the window (and GL context) exists
+import com.badlogic.gdx.backends.lwjgl3.audio.Lwjgl3Audio;           // Released before retrying a failed launch
+import com.badlogic.gdx.graphics.glutils.ShaderProgram;                // Shader source settings for the GL 3.2 context
 import core.MainGame;                                                // Your core LibGDX game class
 
+import java.io.File;
+
 public class DesktopLauncher {
+    /** True once a window (and so its OpenGL context) exists; a failure after that is the game's own. */
+    private static boolean windowCreated;
+
+    /** True while launching with an OpenGL 3.2 core context. */
+    private static boolean coreProfile;
+
+    /**
+     * Optional arguments:
+     *  --record <file>  save every tick's input to <file> when the game closes
+     *  --replay <file>  play back a recording instead of the keyboard, then exit
+     *  --report <file>  write a frame-time report (.csv, or .json) when the game closes
+     */
     public static void main(String[] args) {
+        MainGame game = new MainGame();
+        game.useSimulationThread(true); // Logic on its own core; the render thread only draws.
+        for (int i = 0; i < args.length; i += 2) {
+            if (i + 1 == args.length)            throw new IllegalArgumentException("Missing file after " + args[i]);
+            if (args[i].equals("--record"))      game.recordTo(new File(args[i + 1]));
+            else if (args[i].equals("--replay")) game.replayFrom(new File(args[i + 1]));
+            else if (args[i].equals("--report")) game.reportTo(new File(args[i + 1]));
+            else throw new IllegalArgumentException("Unknown option: " + args[i]);
+        }
+
         Lwjgl3ApplicationConfiguration cfg = new Lwjgl3ApplicationConfiguration(); // Create window config
         cfg.setTitle("Poke Clone");                                                // Window title
         cfg.setWindowedMode(1200, 720);                                // Window size (3x 320x180 virtual res)
         cfg.useVsync(true);                                                        // Enable V-Sync to cap tearing
         cfg.setForegroundFPS(60);                                                  // Target FPS when focused
-        new Lwjgl3Application(new MainGame(), cfg);                                // Launch the game with this config
+
+        cfg.setWindowListener(new Lwjgl3WindowAdapter() {
+            @Override
+            public void created(Lwjgl3Window window) {                           // Before the game's create()
+                windowCreated = true;
+                if (coreProfile) useCoreProfileShaders();
+            }
+        });
+
+        // Try an OpenGL 3.2 core context first, for instanced sprites (InstancedSpriteRenderer). Drivers
+        // without one fail to create the window; then launch again with plain OpenGL 2.0, where
+        // Gdx.gl30 is null and MainGame draws sprites with the SpriteBatch instead.
+        try {
+            launch(game, cfg, true);
+        } catch (RuntimeException e) {
+            if (windowCreated) throw e;                                            // The game failed, not the context
+            System.err.println("Could not open an OpenGL 3.2 core window (" + e.getMessage() + "); retrying with OpenGL 2.0");
+            if (Gdx.audio instanceof Lwjgl3Audio) ((Lwjgl3Audio) Gdx.audio).dispose(); // The failed launch's audio
+            launch(game, cfg, false);
+        }
+    }
+
+    /** Runs the game (returns when it closes) with an OpenGL 3.2 core context, or OpenGL 2.0. */
+    private static void launch(MainGame game, Lwjgl3ApplicationConfiguration cfg, boolean gl30) {
+        coreProfile = gl30;
+        if (gl30) cfg.setOpenGLEmulation(Lwjgl3ApplicationConfiguration.GLEmulation.GL30, 3, 2);
+        else cfg.setOpenGLEmulation(Lwjgl3ApplicationConfiguration.GLEmulation.GL20, 2, 0);
+        new Lwjgl3Application(game, cfg);                                          // Launch the game with this config
+    }
+
+    /**
+     * Core profile GLSL needs a #version line and in/out instead of attribute/varying; these lines
+     * let the GLSL 1.00 shaders of LibGDX and the game compile unchanged. Only for a 3.2 core
+     * context: an OpenGL 2.0 context compiles them as they are.
+     */
+    private static void useCoreProfileShaders() {
+        ShaderProgram.prependVertexCode = "#version 150\n#define varying out\n#define attribute in\n";
+        ShaderProgram.prependFragmentCode = "#version 150\n#define varying in\n#define texture2D texture\n"
+                + "#define gl_FragColor fragColor\nout vec4 fragColor;\n";
     }
 }
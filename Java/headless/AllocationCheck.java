@@ -0,0 +1,158 @@
+package headless;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.backends.headless.HeadlessApplicationConfiguration;
+import com.badlogic.gdx.math.MathUtils;
+import core.MainGame;
+import core.ecs.EntityWorld;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * AllocationCheck runs the real MainGame frame loop under the headless backend
+ * and fails if steady-state frames allocate any memory.
+ *
+ * GC pauses show up as visible stutters, so MainGame.render and everything it
+ * calls must not create objects once the game is running. This harness:
+ *  1) boots MainGame with a no-op GL (NullGL20) and a fixed 1/60 s frame delta
+ *  2) waits for assets, then spawns NPC_COUNT walking entities next to the player
+ *  3) runs WARMUP_FRAMES (class loading, JIT) without measuring
+ *  4) measures bytes allocated by the render thread during each game.render()
+ *     (ThreadMXBean allocated-bytes) over a window of measured frames
+ *  5) exits with status 0 as soon as one whole window allocated nothing
+ *
+ * A window may be retried (up to MAX_WINDOWS) because the JIT can still
+ * deoptimize a method late in the run, which costs a one-off few hundred bytes
+ * inside the JVM. Garbage created by game code happens every frame (or every few),
+ * so it shows up in every window and still fails the check.
+ *
+ * Run with: gradle allocationCheck   (optional argument: number of measured frames)
+ */
+public class AllocationCheck extends ApplicationAdapter {
+
+    // ------------------ SETTINGS ------------------
+
+    /** Frames run before measuring, so class loading and JIT warm-up aren't counted. */
+    private static final int WARMUP_FRAMES = 2_000;
+
+    /** Default number of measured frames. */
+    private static final int DEFAULT_FRAMES = 10_000;
+
+    /** Measured windows to try before giving up. */
+    private static final int MAX_WINDOWS = 3;
+
+    /** Extra walking entities, so the systems have real work every tick. */
+    private static final int NPC_COUNT = 1_000;
+
+    // ------------------ STATE ------------------
+
+    /** The game under test. */
+    private final MainGame game = new MainGame();
+
+    /** Number of frames to measure. */
+    private final int measuredFrames;
+
+    /** Reads allocated bytes of the current thread (HotSpot extension). */
+    private final com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    /** Frames rendered since NPCs were spawned. */
+    private int frame;
+
+    /** Current measured window (1-based) and frames measured in it. */
+    private int window = 1;
+    private int windowFrame;
+
+    /** Bytes allocated inside game.render() during the current window, and frames that allocated. */
+    private long allocatedBytes;
+    private int allocatingFrames;
+
+    /** Process exit status; -1 until measuring is done. */
+    private int exitCode = -1;
+
+    public AllocationCheck(int measuredFrames) {
+        this.measuredFrames = measuredFrames;
+    }
+
+    // ------------------ LIFECYCLE ------------------
+
+    @Override
+    public void create() {
+        Gdx.gl = Gdx.gl20 = new NullGL20();
+        Gdx.graphics = new FixedDeltaGraphics();
+        game.create();
+        game.resize(1280, 720);
+    }
+
+    @Override
+    public void render() {
+        long tid = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(tid);
+        game.render();
+        long bytes = threads.getThreadAllocatedBytes(tid) - before;
+
+        // Still loading assets, or already decided (exit() finishes the current loop): nothing to measure.
+        if (game.getPlayer() == null || exitCode >= 0) return;
+
+        if (frame == 0) spawnNpcs();
+        frame++;
+
+        if (frame <= WARMUP_FRAMES) return;
+
+        allocatedBytes += bytes;
+        if (bytes > 0) allocatingFrames++;
+        if (++windowFrame < measuredFrames) return;
+
+        // End of a window: report it, then pass, retry, or fail.
+        System.out.printf("AllocationCheck window %d: %d frames, %d entities, %d bytes allocated (%.2f bytes/frame), %d allocating frames%n",
+                window, measuredFrames, game.getWorld().getCount(), allocatedBytes,
+                allocatedBytes / (double) measuredFrames, allocatingFrames);
+
+        if (allocatedBytes == 0) {
+            exitCode = 0;
+            Gdx.app.exit();
+        } else if (window == MAX_WINDOWS) {
+            exitCode = 1;
+            Gdx.app.exit();
+        } else {
+            window++;
+            windowFrame = 0;
+            allocatedBytes = 0;
+            allocatingFrames = 0;
+        }
+    }
+
+    @Override
+    public void dispose() {
+        game.dispose();
+        if (exitCode != 0) {
+            System.err.println("AllocationCheck FAILED: the frame loop allocates.");
+            exitCode = 1;
+        }
+        System.exit(exitCode);
+    }
+
+    /** Spawns NPC_COUNT entities around the player, each walking in a random direction. */
+    private void spawnNpcs() {
+        EntityWorld world = game.getWorld();
+        MathUtils.random.setSeed(42);
+        for (int n = 0; n < NPC_COUNT; n++) {
+            int i = world.indexOf(world.spawn(MathUtils.random(0f, MainGame.VIRTUAL_WIDTH),
+                    MathUtils.random(0f, MainGame.VIRTUAL_HEIGHT), 30f, game.getPlayer().getSpriteSet()));
+            world.vx[i] = MathUtils.random(-1f, 1f);
+            world.vy[i] = MathUtils.random(-1f, 1f);
+        }
+    }
+
+    // ------------------ ENTRY POINT ------------------
+
+    public static void main(String[] args) {
+        int frames = (args.length > 0) ? Integer.parseInt(args[0]) : DEFAULT_FRAMES;
+
+        HeadlessApplicationConfiguration cfg = new HeadlessApplicationConfiguration();
+        cfg.updatesPerSecond = 0; // Render frames back to back, as fast as possible.
+        new HeadlessApplication(new AllocationCheck(frames), cfg);
+    }
+}
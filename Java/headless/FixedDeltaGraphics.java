@@ -0,0 +1,41 @@
+package headless;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.headless.mock.graphics.MockGraphics;
+import com.badlogic.gdx.graphics.GL20;
+
+/**
+ * Headless graphics that always reports the same frame delta, so every
+ * MainGame.render() runs the same number of logic ticks no matter how fast
+ * frames are actually produced. Used by the headless harnesses and benchmarks.
+ */
+public class FixedDeltaGraphics extends MockGraphics {
+
+    /** Delta reported for every frame, in seconds. */
+    private final float deltaSeconds;
+
+    /** Reports a steady 60 FPS: one logic tick per frame. */
+    public FixedDeltaGraphics() {
+        this(1f / 60f);
+    }
+
+    public FixedDeltaGraphics(float deltaSeconds) {
+        this.deltaSeconds = deltaSeconds;
+    }
+
+    @Override
+    public float getDeltaTime() {
+        return deltaSeconds;
+    }
+
+    /** The GL in use (Gdx.gl20), so code that wraps it, such as GLProfiler, works headless too. */
+    @Override
+    public GL20 getGL20() {
+        return Gdx.gl20;
+    }
+
+    @Override
+    public void setGL20(GL20 gl20) {
+        Gdx.gl = Gdx.gl20 = gl20;
+    }
+}
@@ -0,0 +1,56 @@
+package headless;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.backends.headless.HeadlessApplicationConfiguration;
+import core.MainGame;
+
+/**
+ * HeadlessEnvironment sets up LibGDX without a window so game code can be driven
+ * directly from any thread (benchmarks, tools).
+ *
+ * start() boots the headless backend (files, logging, natives), then installs
+ * NullGL20 and FixedDeltaGraphics. startGame() additionally creates a MainGame
+ * and renders frames until its assets are loaded.
+ */
+public final class HeadlessEnvironment {
+
+    /** True once the backend has been booted in this JVM. */
+    private static boolean started;
+
+    private HeadlessEnvironment() {
+    }
+
+    /** Boots the headless backend once per JVM; later calls do nothing. */
+    public static synchronized void start() {
+        if (started) return;
+
+        // The backend runs its own (empty) listener; one wake-up per second keeps it idle.
+        HeadlessApplicationConfiguration cfg = new HeadlessApplicationConfiguration();
+        cfg.updatesPerSecond = 1;
+        new HeadlessApplication(new ApplicationAdapter() { }, cfg);
+
+        Gdx.gl = Gdx.gl20 = new NullGL20();
+        Gdx.graphics = new FixedDeltaGraphics();
+        started = true;
+    }
+
+    /**
+     * Creates a MainGame sized for a 1280x720 window and renders until its
+     * assets are loaded and the player exists. Call dispose() on it when done.
+     */
+    public static MainGame startGame() {
+        return startGame(new MainGame());
+    }
+
+    /** Like startGame(), for a game already configured (e.g. with replayFrom()). */
+    public static MainGame startGame(MainGame game) {
+        start();
+        game.create();
+        game.resize(1280, 720);
+        while (game.getPlayer() == null)
+            game.render();
+        return game;
+    }
+}
@@ -0,0 +1,34 @@
+package headless;
+
+import core.Simulation;
+import core.map.MapFile;
+import core.map.ProceduralChunkProvider;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * MapGenerator writes a generated overworld to a binary map file (see MapFile),
+ * which the game then reads instead of generating chunks at runtime.
+ *
+ * Usage: MapGenerator [output file] [widthInChunks] [heightInChunks] [seed]
+ * Defaults are the Simulation's map file, world size and seed.
+ * Run it through "gradle generateMap".
+ */
+public final class MapGenerator {
+
+    private MapGenerator() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        File out   = new File((args.length > 0) ? args[0] : Simulation.MAP_FILE);
+        int width  = (args.length > 1) ? Integer.parseInt(args[1]) : Simulation.WORLD_CHUNKS;
+        int height = (args.length > 2) ? Integer.parseInt(args[2]) : width;
+        long seed  = (args.length > 3) ? Long.parseLong(args[3]) : Simulation.WORLD_SEED;
+
+        long start = System.nanoTime();
+        MapFile.write(new ProceduralChunkProvider(width, height, seed), out);
+        System.out.printf("Wrote %dx%d chunks to %s (%d KB) in %d ms%n", width, height, out,
+                out.length() / 1024, (System.nanoTime() - start) / 1_000_000);
+    }
+}
@@ -0,0 +1,51 @@
+package headless;
+
+import core.MainGame;
+
+import java.io.File;
+
+/**
+ * ReplayRunner plays an input recording (see InputRecorder) headless, as fast as
+ * possible, and reports frame times plus whether the game ended in the recorded state.
+ *
+ * That turns any recorded play session into:
+ *  - a repeatable benchmark: the same ticks with the same input on every build
+ *  - a regression test: exit code 1 if the final state differs from the recording
+ *
+ * Usage: ReplayRunner <recording> [report]   (or "gradle replay -Precording=<file> [-Preport=<file>]")
+ * With a report file (.csv or .json), the frame-time percentiles are written there
+ * (see FrameTimeReport), to compare runs across builds.
+ * Record a session with "gradle run --args='--record <file>'".
+ */
+public final class ReplayRunner {
+
+    private ReplayRunner() {
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 1 || args.length > 2) throw new IllegalArgumentException("Usage: ReplayRunner <recording> [report]");
+
+        MainGame game = new MainGame();
+        game.replayFrom(new File(args[0]));
+        if (args.length == 2) game.reportTo(new File(args[1]));
+        HeadlessEnvironment.startGame(game);
+
+        // FixedDeltaGraphics makes every frame exactly one tick.
+        long frames = 0, totalNanos = 0, worstNanos = 0;
+        while (!game.isReplayFinished()) {
+            long start = System.nanoTime();
+            game.render();
+            long nanos = System.nanoTime() - start;
+            frames++;
+            totalNanos += nanos;
+            worstNanos = Math.max(worstNanos, nanos);
+        }
+
+        boolean inSync = game.isReplayInSync();
+        System.out.printf("Replay: %d frames, %.1f us/frame average, %.1f us worst, final state %s%n",
+                frames, totalNanos / 1000.0 / Math.max(1, frames), worstNanos / 1000.0,
+                inSync ? "matches the recording" : "DIFFERS from the recording");
+        game.dispose();
+        System.exit(inSync ? 0 : 1);
+    }
+}
@@ -0,0 +1,86 @@
+package headless;
+
+import com.badlogic.gdx.math.MathUtils;
+import core.Simulation;
+import core.ecs.EntityWorld;
+import core.entities.Player;
+import core.input.Action;
+
+/**
+ * SimulationRunner runs the game logic on its own: no window, no OpenGL, not even
+ * the LibGDX headless backend. Just Simulation.tick() in a loop, as fast as the
+ * CPU allows, printing how many ticks per second it manages.
+ *
+ * Useful to measure the logic alone (without drawing) and to check it keeps up
+ * with much larger entity counts than the game normally has.
+ *
+ * The player gets a new random direction every two seconds of game time so the
+ * map keeps streaming; NPCs wander in random directions. Collision is off: which
+ * chunks are loaded (and so which tiles are known to be walkable) depends on the
+ * loader thread's timing, and NPCs roam far beyond the chunks loaded up front.
+ *
+ * Usage: SimulationRunner [entities] [seconds] [threads] [ticks]
+ *   (or "gradle simulate -Pentities=... -Pseconds=... -Pthreads=... -Pticks=...")
+ * Threads defaults to every core (also when 0); compare with 1 to see what
+ * SystemScheduler gains. With ticks > 0 it runs exactly that many ticks instead
+ * of for "seconds": everything is seeded, so the final checksum is then the same
+ * on every run with the same entities and ticks, whatever the thread count.
+ */
+public final class SimulationRunner {
+
+    /** Ticks between the player's direction changes. */
+    private static final int TICKS_PER_INPUT = 120;
+
+    private SimulationRunner() {
+    }
+
+    public static void main(String[] args) {
+        int entities = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : 0;
+        if (threads <= 0) threads = Runtime.getRuntime().availableProcessors();
+        long ticks = args.length > 3 ? Long.parseLong(args[3]) : 0;
+
+        Simulation sim = new Simulation(Simulation.openWorldMap(), entities + 1, threads);
+        EntityWorld world = sim.getWorld();
+        Player player = new Player(world, 160, 90, Player.DEFAULT_SPEED);
+        sim.follow(player.getId());
+        sim.setCollisionEnabled(false); // Reproducible: see the class comment.
+
+        // NPCs spread around the start area, each walking its own way.
+        MathUtils.random.setSeed(42);
+        for (int n = 0; n < entities; n++) {
+            int i = world.indexOf(world.spawn(MathUtils.random(0f, 2048f), MathUtils.random(0f, 2048f), 30f, null));
+            world.vx[i] = MathUtils.random(-1f, 1f);
+            world.vy[i] = MathUtils.random(-1f, 1f);
+        }
+
+        Action[] directions = {Action.MOVE_UP, Action.MOVE_DOWN, Action.MOVE_LEFT, Action.MOVE_RIGHT};
+        float delta = 1f / Simulation.TICKS_PER_SECOND;
+        long end = System.nanoTime() + seconds * 1_000_000_000L;
+        long reportAt = System.nanoTime() + 1_000_000_000L;
+        long ticksAtReport = 0;
+
+        while (ticks > 0 ? sim.getTick() < ticks : System.nanoTime() < end) {
+            if (sim.getTick() % TICKS_PER_INPUT == 0) {
+                int bits = directions[MathUtils.random(directions.length - 1)].bit();
+                if (MathUtils.randomBoolean()) bits |= Action.RUN.bit();
+                sim.getInput().set(bits);
+            }
+            sim.tick(delta);
+
+            long now = System.nanoTime();
+            if (now >= reportAt) {
+                System.out.printf("%,d ticks/s (%d entities, %d threads, %d chunks loaded)%n",
+                        sim.getTick() - ticksAtReport, world.getCount(), threads, sim.getChunks().getLoadedCount());
+                ticksAtReport = sim.getTick();
+                reportAt += 1_000_000_000L;
+            }
+        }
+
+        System.out.printf("Ran %,d ticks (%.1f minutes of game time), final checksum %016x%n",
+                sim.getTick(), sim.getTick() * delta / 60f, world.checksum());
+        player.dispose();
+        sim.dispose();
+    }
+}
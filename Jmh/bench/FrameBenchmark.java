@@ -0,0 +1,51 @@
+package bench;
+
+import com.badlogic.gdx.math.MathUtils;
+import core.MainGame;
+import core.ecs.EntityWorld;
+import headless.HeadlessEnvironment;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of one full MainGame.render() (one logic tick plus drawing) with N extra
+ * entities wandering around the player. Runs headless with NullGL20, so this
+ * measures CPU-side work only: logic, frame selection and SpriteBatch vertex building.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class FrameBenchmark {
+
+    /** Entities spawned next to the player. */
+    @Param({"0", "1000", "10000"})
+    public int npcs;
+
+    private MainGame game;
+
+    @Setup
+    public void setup() {
+        game = HeadlessEnvironment.startGame();
+        EntityWorld world = game.getWorld();
+
+        // Same spread as the allocation check: random spots, each walking in a random direction.
+        MathUtils.random.setSeed(42);
+        for (int n = 0; n < npcs; n++) {
+            int i = world.indexOf(world.spawn(MathUtils.random(0f, MainGame.VIRTUAL_WIDTH),
+                    MathUtils.random(0f, MainGame.VIRTUAL_HEIGHT), 30f, game.getPlayer().getSpriteSet()));
+            world.vx[i] = MathUtils.random(-1f, 1f);
+            world.vy[i] = MathUtils.random(-1f, 1f);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        game.dispose();
+    }
+
+    @Benchmark
+    public void frame() {
+        game.render();
+    }
+}
@@ -0,0 +1,63 @@
+package bench;
+
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import core.MainGame;
+import core.assets.SpriteSet;
+import headless.HeadlessEnvironment;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of picking the animation key frame for many entities, the first step of
+ * drawing each one (see RenderSystem.render). Facing and animation time are
+ * randomized so the lookups are not all the same frame.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class FrameSelectionBenchmark {
+
+    /** Number of entities whose frame is picked per invocation. */
+    private static final int ENTITIES = 1024;
+
+    /** Whether the entities are walking (animated frames) or standing (idle frames). */
+    @Param({"idle", "walking"})
+    public String state;
+
+    private MainGame game;
+    private SpriteSet set;
+    private final byte[] facing = new byte[ENTITIES];
+    private final float[] stateTime = new float[ENTITIES];
+
+    @Setup
+    public void setup() {
+        game = HeadlessEnvironment.startGame();
+        set = game.getPlayer().getSpriteSet();
+
+        Random random = new Random(42);
+        for (int i = 0; i < ENTITIES; i++) {
+            facing[i] = (byte) random.nextInt(SpriteSet.DIRECTIONS);
+            stateTime[i] = random.nextFloat() * 10f;
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        game.dispose();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ENTITIES)
+    public void select(Blackhole bh) {
+        boolean walking = state.equals("walking");
+        for (int i = 0; i < ENTITIES; i++) {
+            TextureRegion frame = walking
+                    ? set.walkFrame(facing[i], stateTime[i])
+                    : set.idleFrame(facing[i]);
+            bh.consume(frame);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package bench;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Input.Keys;
+import core.ecs.AnimationSystem;
+import core.ecs.EntityWorld;
+import core.ecs.InputSystem;
+import core.ecs.MovementSystem;
+import core.input.InputBindings;
+import core.input.InputState;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of one logic tick for the player (what Player.update used to do):
+ * poll the keys, move, advance the animation clock. Each key combination takes a
+ * different branch through InputSystem and MovementSystem.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PlayerUpdateBenchmark {
+
+    /** Fixed tick length, the same as MainGame at 60 ticks per second. */
+    private static final float STEP = 1f / 60f;
+
+    /** Keys held during the benchmark. */
+    @Param({"none", "walk", "run", "diagonal", "diagonalRun"})
+    public String keys;
+
+    private EntityWorld world;
+    private final InputState state = new InputState(InputBindings.defaults());
+    private final InputSystem input = new InputSystem();
+    private final MovementSystem movement = new MovementSystem();
+    private final AnimationSystem animation = new AnimationSystem();
+
+    @Setup
+    public void setup() {
+        switch (keys) {
+            case "walk":        Gdx.input = new ScriptedInput(Keys.D); break;
+            case "run":         Gdx.input = new ScriptedInput(Keys.D, Keys.SHIFT_LEFT); break;
+            case "diagonal":    Gdx.input = new ScriptedInput(Keys.W, Keys.D); break;
+            case "diagonalRun": Gdx.input = new ScriptedInput(Keys.W, Keys.D, Keys.SHIFT_LEFT); break;
+            default:            Gdx.input = new ScriptedInput(); break;
+        }
+
+        world = new EntityWorld(1);
+        int id = world.spawn(160, 90, 60f, null);
+        world.flags[world.indexOf(id)] |= EntityWorld.CONTROLLED;
+    }
+
+    @Benchmark
+    public float tick() {
+        state.poll(Gdx.input);
+        input.update(world, state);
+        movement.update(world, STEP);
+        animation.update(world, STEP);
+        return world.x[0] + world.y[0];
+    }
+}
@@ -0,0 +1,88 @@
+package bench;
+
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import core.MainGame;
+import core.assets.SpriteSet;
+import core.ecs.RenderSystem;
+import core.render.RenderQueue;
+import headless.HeadlessEnvironment;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of putting a frame's sprites in back-to-front order, starting from the
+ * same unsorted sprites every invocation: RenderQueue (submit, which stores the
+ * command and computes its key, then the radix sort) against the usual way
+ * (copy the command indices and compute a sort key per command, then a boxed
+ * Comparator sort by that key). Positions are random over a few screens, so
+ * many sprites share a row, as in a crowded scene.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class RenderQueueBenchmark {
+
+    /** Sprites queued per invocation. */
+    @Param({"1000", "50000"})
+    public int sprites;
+
+    private MainGame game;
+    private RenderQueue queue;
+    private TextureRegion[] frames;
+    private float[] x, y;
+
+    /** Command indices in submission order, copied into "boxed" before each comparator sort. */
+    private Integer[] unsorted, boxed;
+    private float[] sortKeys;
+
+    @Setup
+    public void setup() {
+        game = HeadlessEnvironment.startGame();
+        SpriteSet set = game.getPlayer().getSpriteSet();
+        queue = new RenderQueue(sprites);
+
+        Random random = new Random(42);
+        frames = new TextureRegion[sprites];
+        x = new float[sprites];
+        y = new float[sprites];
+        unsorted = new Integer[sprites];
+        boxed = new Integer[sprites];
+        sortKeys = new float[sprites];
+        for (int i = 0; i < sprites; i++) {
+            frames[i] = set.frame(random.nextInt(SpriteSet.FRAME_COUNT));
+            x[i] = random.nextInt(1280);
+            y[i] = random.nextInt(720);
+            unsorted[i] = i;
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        game.dispose();
+    }
+
+    @Benchmark
+    public void radixSort(Blackhole bh) {
+        for (int i = 0; i < sprites; i++)
+            queue.submit(RenderSystem.CHARACTER_LAYER, frames[i], x[i], y[i], 16f, 32f);
+        queue.sort();
+        bh.consume(queue.getOrder());
+        queue.clear();
+    }
+
+    @Benchmark
+    public void comparatorSort(Blackhole bh) {
+        // Same input as radixSort each time: sorting the previous result would hit TimSort's sorted-input best case.
+        System.arraycopy(unsorted, 0, boxed, 0, sprites);
+        float[] keys = sortKeys;
+        for (int i = 0; i < sprites; i++)
+            keys[i] = -y[i]; // Higher on screen first, like the queue's key.
+        Arrays.sort(boxed, Comparator.comparingDouble((Integer i) -> keys[i]));
+        bh.consume(boxed);
+    }
+}
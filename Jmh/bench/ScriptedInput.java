@@ -0,0 +1,23 @@
+package bench;
+
+import com.badlogic.gdx.backends.headless.mock.input.MockInput;
+
+/**
+ * Input that reports a fixed set of keys as held down, so benchmarks can
+ * replay a key combination without a keyboard.
+ */
+final class ScriptedInput extends MockInput {
+
+    /** Held state for every key code. */
+    private final boolean[] held = new boolean[256];
+
+    ScriptedInput(int... keys) {
+        for (int key : keys)
+            held[key] = true;
+    }
+
+    @Override
+    public boolean isKeyPressed(int key) {
+        return key >= 0 && key < held.length && held[key];
+    }
+}
@@ -0,0 +1,66 @@
+package bench;
+
+import com.badlogic.gdx.utils.IntArray;
+import core.ecs.EntityWorld;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of "which entities are near this point" with many entities spread over
+ * a large area: the SpatialHash query versus scanning every entity.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SpatialQueryBenchmark {
+
+    /** Side of the square the entities are spread over, in world units. */
+    private static final float AREA = 8192f;
+
+    /** Search radius (about an interaction range). */
+    private static final float RADIUS = 48f;
+
+    /** Query points cycled through so results differ between calls. */
+    private static final int QUERY_POINTS = 1024;
+
+    @Param({"1000", "10000", "100000"})
+    public int entities;
+
+    private EntityWorld world;
+    private final IntArray results = new IntArray(256);
+    private final float[] qx = new float[QUERY_POINTS], qy = new float[QUERY_POINTS];
+    private int next;
+
+    @Setup
+    public void setup() {
+        world = new EntityWorld(entities);
+        Random random = new Random(42);
+        for (int i = 0; i < entities; i++)
+            world.spawn(random.nextFloat() * AREA, random.nextFloat() * AREA, 30f, null);
+        for (int i = 0; i < QUERY_POINTS; i++) {
+            qx[i] = random.nextFloat() * AREA;
+            qy[i] = random.nextFloat() * AREA;
+        }
+    }
+
+    @Benchmark
+    public int hashQuery() {
+        int q = next++ & (QUERY_POINTS - 1);
+        results.clear();
+        return world.spatial.queryRadius(qx[q], qy[q], RADIUS, results);
+    }
+
+    @Benchmark
+    public int linearScan() {
+        int q = next++ & (QUERY_POINTS - 1);
+        results.clear();
+        float r2 = RADIUS * RADIUS;
+        for (int i = 0, n = world.getCount(); i < n; i++) {
+            float dx = world.x[i] - qx[q], dy = world.y[i] - qy[q];
+            if (dx * dx + dy * dy <= r2) results.add(world.idAt(i));
+        }
+        return results.size;
+    }
+}
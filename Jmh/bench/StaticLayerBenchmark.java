@@ -0,0 +1,80 @@
+package bench;
+
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import core.MainGame;
+import core.assets.SpriteSet;
+import core.render.StaticLayer;
+import headless.HeadlessEnvironment;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-frame cost of drawing decorations that never move: through a SpriteBatch
+ * every frame (vertices rebuilt each time) against a StaticLayer (vertices built
+ * once, one mesh draw per cell). Decorations are spread over one screen. Runs
+ * headless with NullGL20, so this measures the CPU side only.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class StaticLayerBenchmark {
+
+    /** Decorations on screen. */
+    @Param({"1000", "5000"})
+    public int decorations;
+
+    private MainGame game;
+    private SpriteBatch batch;
+    private StaticLayer layer;
+    private OrthographicCamera camera;
+    private TextureRegion[] regions;
+    private float[] x, y;
+
+    @Setup
+    public void setup() {
+        game = HeadlessEnvironment.startGame();
+        SpriteSet set = game.getPlayer().getSpriteSet();
+        batch = new SpriteBatch();
+        layer = new StaticLayer();
+        camera = new OrthographicCamera(MainGame.VIRTUAL_WIDTH, MainGame.VIRTUAL_HEIGHT);
+        camera.position.set(MainGame.VIRTUAL_WIDTH / 2f, MainGame.VIRTUAL_HEIGHT / 2f, 0);
+        camera.update();
+
+        Random random = new Random(42);
+        regions = new TextureRegion[decorations];
+        x = new float[decorations];
+        y = new float[decorations];
+        for (int i = 0; i < decorations; i++) {
+            regions[i] = set.frame(random.nextInt(SpriteSet.FRAME_COUNT));
+            x[i] = random.nextInt(MainGame.VIRTUAL_WIDTH);
+            y[i] = random.nextInt(MainGame.VIRTUAL_HEIGHT);
+            layer.add(regions[i], x[i], y[i], 16f, 32f);
+        }
+        layer.render(camera); // Builds the meshes once, outside the measurement.
+    }
+
+    @TearDown
+    public void tearDown() {
+        layer.dispose();
+        batch.dispose();
+        game.dispose();
+    }
+
+    @Benchmark
+    public void spriteBatch() {
+        batch.setProjectionMatrix(camera.combined);
+        batch.begin();
+        for (int i = 0; i < decorations; i++)
+            batch.draw(regions[i], x[i], y[i], 16f, 32f);
+        batch.end();
+    }
+
+    @Benchmark
+    public void staticLayer() {
+        layer.render(camera);
+    }
+}